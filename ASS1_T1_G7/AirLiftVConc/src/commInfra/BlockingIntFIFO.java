@@ -0,0 +1,275 @@
+package commInfra;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *    Blocking bounded FIFO of integers.
+ *    It is implemented as an explicit monitor on top of a memory of integers, with two conditions: producers wait
+ *    on "not full" and consumers wait on "not empty", so that an insertion only wakes up a consumer and a retrieval
+ *    only wakes up a producer.
+ *    The values are retrieved in the order set by the memory: in the order they were written for a FIFO, or by
+ *    priority for a priority queue.
+ *    Errors are reported.
+ */
+
+public class BlockingIntFIFO implements IntQueue
+{
+    /**
+     *   Value returned by a timed retrieval when the FIFO stayed empty.
+     */
+
+    public static final int NO_VALUE = Integer.MIN_VALUE;
+
+    /**
+     *   Internal storage area.
+     */
+
+    private final IntMemObject fifo;
+
+    /**
+     *   Number of values in the FIFO.
+     */
+
+    private int count;
+
+    /**
+     *   Mutual exclusion lock.
+     */
+
+    private final ReentrantLock lock;
+
+    /**
+     *   Condition producers wait on while the FIFO is full.
+     */
+
+    private final Condition notFull;
+
+    /**
+     *   Condition consumers wait on while the FIFO is empty.
+     */
+
+    private final Condition notEmpty;
+
+    /**
+     *   FIFO instantiation.
+     *
+     *     @param size maximum number of values in the FIFO
+     *     @throws MemException when the size is not positive
+     */
+
+    public BlockingIntFIFO (int size) throws MemException
+    {
+        this (new IntFIFO (size));
+    }
+
+    /**
+     *   FIFO instantiation on top of a given storage.
+     *   The instantiation only takes place if the storage exists.
+     *
+     *     @param storage FIFO of integers to be used; it must be empty
+     *     @throws MemException when the storage does not exist
+     */
+
+    public BlockingIntFIFO (IntMemObject storage) throws MemException
+    {
+        if (storage == null)
+            throw new MemException ("illegal storage device!");
+        fifo = storage;
+        count = storage.size ();
+        lock = new ReentrantLock ();
+        notFull = lock.newCondition ();
+        notEmpty = lock.newCondition ();
+    }
+
+    /**
+     *   FIFO insertion.
+     *   The producer blocks while the FIFO is full.
+     *
+     *    @param val value to be written
+     *    @throws InterruptedException when the producer is interrupted while waiting
+     */
+
+    @Override
+    public void put (int val) throws InterruptedException
+    {
+        lock.lockInterruptibly ();
+        try
+        { while (fifo.full ())
+              notFull.await ();
+            insert (val);
+        }
+        finally
+        { lock.unlock ();
+        }
+    }
+
+    /**
+     *   Timed FIFO insertion.
+     *   The producer blocks while the FIFO is full, up to the given time.
+     *
+     *    @param val value to be written
+     *    @param timeout maximum time to wait
+     *    @param unit time unit of the timeout
+     *    @return true, if the value was written -
+     *            false, if the FIFO stayed full
+     *    @throws InterruptedException when the producer is interrupted while waiting
+     */
+
+    public boolean offer (int val, long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long nanos = unit.toNanos (timeout);
+
+        lock.lockInterruptibly ();
+        try
+        { while (fifo.full ())
+          { if (nanos <= 0)
+                return false;
+              nanos = notFull.awaitNanos (nanos);
+          }
+            insert (val);
+            return true;
+        }
+        finally
+        { lock.unlock ();
+        }
+    }
+
+    /**
+     *   FIFO retrieval.
+     *   The consumer blocks while the FIFO is empty.
+     *
+     *    @return first value that was written
+     *    @throws InterruptedException when the consumer is interrupted while waiting
+     */
+
+    @Override
+    public int take () throws InterruptedException
+    {
+        lock.lockInterruptibly ();
+        try
+        { while (count == 0)
+              notEmpty.await ();
+            return remove ();
+        }
+        finally
+        { lock.unlock ();
+        }
+    }
+
+    /**
+     *   Timed FIFO retrieval.
+     *   The consumer blocks while the FIFO is empty, up to the given time.
+     *
+     *    @param timeout maximum time to wait
+     *    @param unit time unit of the timeout
+     *    @return first value that was written, or NO_VALUE if the FIFO stayed empty
+     *    @throws InterruptedException when the consumer is interrupted while waiting
+     */
+
+    public int poll (long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long nanos = unit.toNanos (timeout);
+
+        lock.lockInterruptibly ();
+        try
+        { while (count == 0)
+          { if (nanos <= 0)
+                return NO_VALUE;
+              nanos = notEmpty.awaitNanos (nanos);
+          }
+            return remove ();
+        }
+        finally
+        { lock.unlock ();
+        }
+    }
+
+    /**
+     *   Bulk FIFO retrieval.
+     *   The values currently in the FIFO are moved into an array, up to a maximum number, without blocking.
+     *
+     *    @param dst array where the values are stored, starting at position 0
+     *    @param max maximum number of values to be moved
+     *    @return number of values moved
+     */
+
+    @Override
+    public int drainTo (int [] dst, int max)
+    {
+        int n;
+
+        lock.lock ();
+        try
+        { n = fifo.readUpTo (dst, max);
+            if (n > 0)
+            { count -= n;
+                notFull.signalAll ();
+            }
+            return n;
+        }
+        finally
+        { lock.unlock ();
+        }
+    }
+
+    /**
+     *   Get the number of values in the FIFO.
+     *
+     *    @return number of values in the FIFO
+     */
+
+    @Override
+    public int size ()
+    {
+        lock.lock ();
+        try
+        { return count;
+        }
+        finally
+        { lock.unlock ();
+        }
+    }
+
+    /**
+     *   Insert a value and wake up a consumer.
+     *   It must be called while holding the lock, with the FIFO not full.
+     *
+     *    @param val value to be written
+     */
+
+    private void insert (int val)
+    {
+        try
+        { fifo.write (val);
+        }
+        catch (MemException e)
+        { throw new IllegalStateException (e);      // it can not happen, the FIFO is not full
+        }
+        count += 1;
+        notEmpty.signal ();
+    }
+
+    /**
+     *   Remove a value and wake up a producer.
+     *   It must be called while holding the lock, with the FIFO not empty.
+     *
+     *    @return first value that was written
+     */
+
+    private int remove ()
+    {
+        int val;
+
+        try
+        { val = fifo.read ();
+        }
+        catch (MemException e)
+        { throw new IllegalStateException (e);      // it can not happen, the FIFO is not empty
+        }
+        count -= 1;
+        notFull.signal ();
+        return val;
+    }
+}
@@ -0,0 +1,246 @@
+package commInfra;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *    Durable writer of a logging file, with group commit.
+ *    The characters that are written are kept in memory and are committed in batches: the complete lines are
+ *    written into the file in a single operation and the file is forced to the storage device. A partial line is
+ *    never written; it waits in memory until it is completed.
+ *    A commit takes place when the writer is flushed or closed and, optionally, periodically by a syncer thread.
+ *    The writer is guarded by a reentrant lock, so that a virtual thread forcing the file does not pin its carrier.
+ *    Errors are reported.
+ */
+
+public class DurableLogWriter extends Writer
+{
+    /**
+     *   File the lines are committed to.
+     */
+
+    private final FileOutputStream file;
+
+    /**
+     *   Output stream the lines are written into (the file itself, or a stream on top of it).
+     */
+
+    private final OutputStream out;
+
+    /**
+     *   Characters waiting to be committed.
+     */
+
+    private char [] pending;
+
+    /**
+     *   Number of characters waiting to be committed.
+     */
+
+    private int count;
+
+    /**
+     *   Signaling the writer was closed.
+     */
+
+    private boolean closed;
+
+    /**
+     *   Error raised by a periodic commit, to be reported by the next operation.
+     */
+
+    private IOException failure;
+
+    /**
+     *   Syncer thread, which commits periodically.
+     */
+
+    private final Thread syncer;
+
+    /**
+     *   Mutual exclusion lock of the writer.
+     */
+
+    private final ReentrantLock commitLock;
+
+    /**
+     *   Writer instantiation.
+     *
+     *     @param file file the lines are committed to
+     *     @param out output stream the lines are written into; it is flushed before the file is forced
+     *     @param interval period (in milliseconds) of the commits made by the syncer thread; there is no
+     *                     periodic commit if it is zero
+     */
+
+    public DurableLogWriter (FileOutputStream file, OutputStream out, long interval)
+    {
+        this.file = file;
+        this.out = out;
+        pending = new char [1024];
+        count = 0;
+        closed = false;
+        failure = null;
+        commitLock = new ReentrantLock ();
+        if (interval > 0)
+        { syncer = new Thread (() -> syncPeriodically (interval), "LogSyncer");
+            syncer.setDaemon (true);
+            syncer.start ();
+        }
+        else syncer = null;
+    }
+
+    /**
+     *   Write characters.
+     *   They are kept in memory until they are committed.
+     *
+     *    @param cbuf characters to be written
+     *    @param off position of the first character
+     *    @param len number of characters
+     *    @throws IOException when the writer was closed or a previous periodic commit failed
+     */
+
+    @Override
+    public void write (char [] cbuf, int off, int len) throws IOException
+    {
+        commitLock.lock ();
+        try
+        { checkState ();
+            if (count + len > pending.length)
+            { char [] larger = new char [Math.max (2 * pending.length, count + len)];
+                System.arraycopy (pending, 0, larger, 0, count);
+                pending = larger;
+            }
+            System.arraycopy (cbuf, off, pending, count, len);
+            count += len;
+        }
+        finally
+        { commitLock.unlock ();
+        }
+    }
+
+    /**
+     *   Commit the complete lines written so far.
+     *
+     *    @throws IOException when the commit fails
+     */
+
+    @Override
+    public void flush () throws IOException
+    {
+        commitLock.lock ();
+        try
+        { checkState ();
+            commit ();
+        }
+        finally
+        { commitLock.unlock ();
+        }
+    }
+
+    /**
+     *   Commit the complete lines written so far and close the file.
+     *   A partial last line is discarded.
+     *
+     *    @throws IOException when the commit or the closing fails
+     */
+
+    @Override
+    public void close () throws IOException
+    {
+        commitLock.lock ();
+        try
+        { if (closed)
+              return;
+            closed = true;
+            try
+            { if (failure != null)
+                  throw failure;
+                commit ();
+            }
+            finally
+            { out.close ();
+            }
+        }
+        finally
+        { commitLock.unlock ();
+        }
+        if (syncer != null)
+            syncer.interrupt ();
+    }
+
+    /**
+     *   Commit operation.
+     *   The complete lines are written into the output stream, which is flushed, and the file is forced to the
+     *   storage device. The remaining characters are kept for the next commit.
+     *   The file is forced through its descriptor, not its channel, since an interrupt of the calling thread would
+     *   close the channel and, with it, the file.
+     *   It must be called while holding the lock of the writer.
+     *
+     *    @throws IOException when the writing or the forcing fails
+     */
+
+    private void commit () throws IOException
+    {
+        int end = count;                               // end of the last complete line
+
+        while ((end > 0) && (pending[end - 1] != '\n'))
+            end -= 1;
+        if (end == 0)
+            return;
+        out.write (new String (pending, 0, end).getBytes ());
+        out.flush ();
+        file.getFD ().sync ();
+        System.arraycopy (pending, end, pending, 0, count - end);
+        count -= end;
+    }
+
+    /**
+     *   Check the writer may still be used.
+     *
+     *    @throws IOException when the writer was closed or a previous periodic commit failed
+     */
+
+    private void checkState () throws IOException
+    {
+        if (closed)
+            throw new IOException ("Writer closed!");
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     *   Life cycle of the syncer thread.
+     *
+     *    @param interval period (in milliseconds) of the commits
+     */
+
+    private void syncPeriodically (long interval)
+    {
+        while (true)
+        { try
+            { Thread.sleep (interval);
+            }
+            catch (InterruptedException e)
+            { return;                                  // the writer was closed
+            }
+            commitLock.lock ();
+            try
+            { if (closed)
+                  return;
+                try
+                { commit ();
+                }
+                catch (IOException e)
+                { failure = e;
+                    return;
+                }
+            }
+            finally
+            { commitLock.unlock ();
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package commInfra;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *    Bounded ring buffer of events.
+ *    Each event is a small record packed into a long value.
+ *    It is implemented as an explicit monitor, based on a reentrant lock, to be shared by many producers and a single
+ *    consumer: a producer blocks while the ring buffer is full and the consumer blocks while it is empty, each one
+ *    in its own condition.
+ *    Events are retrieved in batches, in the order they were inserted.
+ */
+
+public class EventRing
+{
+    /**
+     *   Internal storage area.
+     */
+
+    private final long [] ring;
+
+    /**
+     *   Mask applied to the pointers to get a location in the storage area.
+     */
+
+    private final int mask;
+
+    /**
+     *   Number of events that were inserted so far.
+     */
+
+    private long inPnt;
+
+    /**
+     *   Number of events that were retrieved so far.
+     */
+
+    private long outPnt;
+
+    /**
+     *   Signaling no more events are going to be inserted.
+     */
+
+    private boolean closed;
+
+    /**
+     *   Signaling the consumer is blocked waiting for events.
+     */
+
+    private boolean consumerWaiting;
+
+    /**
+     *   Number of producers blocked waiting for free space.
+     */
+
+    private int producersWaiting;
+
+    /**
+     *   Mutual exclusion lock.
+     */
+
+    private final ReentrantLock lock;
+
+    /**
+     *   Condition where the producers wait for free space.
+     */
+
+    private final Condition notFull;
+
+    /**
+     *   Condition where the consumer waits for events.
+     */
+
+    private final Condition notEmpty;
+
+    /**
+     *   Ring buffer instantiation.
+     *   The size is rounded up to a power of two.
+     *
+     *     @param size minimum number of events the ring buffer can hold
+     *     @throws MemException when the size is not positive
+     */
+
+    public EventRing (int size) throws MemException
+    {
+        int capacity = 1;
+
+        if ((size <= 0) || (size > (1 << 30)))
+            throw new MemException ("illegal ring buffer size!");
+        while (capacity < size)
+            capacity <<= 1;
+        ring = new long [capacity];
+        mask = ring.length - 1;
+        inPnt = outPnt = 0;
+        closed = false;
+        consumerWaiting = false;
+        producersWaiting = 0;
+        lock = new ReentrantLock ();
+        notFull = lock.newCondition ();
+        notEmpty = lock.newCondition ();
+    }
+
+    /**
+     *   Event insertion.
+     *   The producer blocks while the ring buffer is full.
+     *
+     *    @param event event to be inserted
+     *    @throws MemException when the ring buffer was already closed
+     *    @throws InterruptedException when the producer is interrupted while waiting for free space
+     */
+
+    public void put (long event) throws MemException, InterruptedException
+    {
+        lock.lock ();
+        try
+        { if (closed)
+              throw new MemException ("Event ring closed!");
+            while (inPnt - outPnt == ring.length)
+            { producersWaiting += 1;
+                try
+                { notFull.await ();
+                }
+                finally
+                { producersWaiting -= 1;
+                }
+            }
+            ring[(int) inPnt & mask] = event;
+            inPnt += 1;
+            if (consumerWaiting)
+                notEmpty.signal ();
+        }
+        finally
+        { lock.unlock ();
+        }
+    }
+
+    /**
+     *   Batch retrieval.
+     *   The consumer blocks while the ring buffer is empty and has not been closed.
+     *
+     *    @param dst array where the events are stored, starting at position 0
+     *    @return number of retrieved events (0, if the ring buffer is empty and was closed)
+     *    @throws InterruptedException when the consumer is interrupted while waiting for events
+     */
+
+    public int take (long [] dst) throws InterruptedException
+    {
+        int n, first;
+
+        lock.lock ();
+        try
+        { while ((inPnt == outPnt) && !closed)
+          { consumerWaiting = true;
+              try
+              { notEmpty.await ();
+              }
+              finally
+              { consumerWaiting = false;
+              }
+          }
+            n = (int) Math.min (dst.length, inPnt - outPnt);
+            first = Math.min (n, ring.length - ((int) outPnt & mask));
+            System.arraycopy (ring, (int) outPnt & mask, dst, 0, first);
+            System.arraycopy (ring, 0, dst, first, n - first);
+            outPnt += n;
+            if ((n > 0) && (producersWaiting > 0))
+                notFull.signalAll ();
+            return n;
+        }
+        finally
+        { lock.unlock ();
+        }
+    }
+
+    /**
+     *   Close the ring buffer.
+     *   No more events may be inserted; the events still stored can be retrieved.
+     */
+
+    public void close ()
+    {
+        lock.lock ();
+        try
+        { closed = true;
+            notEmpty.signalAll ();
+            notFull.signalAll ();
+        }
+        finally
+        { lock.unlock ();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package commInfra;
+
+/**
+ *    FIFO of integers.
+ *    Primitive counterpart of the parametric FIFO: the values are kept in an array of int, so there is neither
+ *    boxing nor allocation per element. The storage area is sized to a power of two and the pointers are wrapped
+ *    around it by masking.
+ *    Errors are reported.
+ */
+
+public class IntFIFO extends IntMemObject
+{
+    /**
+     *   Internal storage area.
+     */
+
+    private final int [] mem;
+
+    /**
+     *   Mask applied to the pointers to get a location in the storage area.
+     */
+
+    private final int mask;
+
+    /**
+     *   Maximum number of values in the FIFO.
+     */
+
+    private final int size;
+
+    /**
+     *   Number of values that were written so far (pointer to the first empty location, before masking).
+     */
+
+    private int inPnt;
+
+    /**
+     *   Number of values that were read so far (pointer to the first occupied location, before masking).
+     */
+
+    private int outPnt;
+
+    /**
+     *   FIFO instantiation.
+     *
+     *     @param size maximum number of values in the FIFO
+     *     @throws MemException when the size is not positive
+     */
+
+    public IntFIFO (int size) throws MemException
+    {
+        int capacity = 1;
+
+        if ((size <= 0) || (size > (1 << 30)))
+            throw new MemException ("illegal storage size!");
+        while (capacity < size)
+            capacity <<= 1;
+        mem = new int [capacity];
+        mask = capacity - 1;
+        this.size = size;
+        inPnt = outPnt = 0;
+    }
+
+    /**
+     *   FIFO insertion.
+     *   A value is written into it.
+     *   If the FIFO is full, an error is reported.
+     *
+     *    @param val value to be written
+     *    @throws MemException when the FIFO is full
+     */
+
+    @Override
+    public void write (int val) throws MemException
+    {
+        if (inPnt - outPnt != size)
+        { mem[inPnt & mask] = val;
+            inPnt += 1;
+        }
+        else throw new MemException ("Fifo full!");
+    }
+
+    /**
+     *   FIFO retrieval.
+     *   A value is read from it.
+     *   If the FIFO is empty, an error is reported.
+     *
+     *    @return first value that was written
+     *    @throws MemException when the FIFO is empty
+     */
+
+    @Override
+    public int read () throws MemException
+    {
+        int val;
+
+        if (inPnt != outPnt)
+        { val = mem[outPnt & mask];
+            outPnt += 1;
+        }
+        else throw new MemException ("Fifo empty!");
+        return val;
+    }
+
+    /**
+     *   FIFO batch insertion.
+     *   A sequence of values is written into it, in order, with at most two array copies.
+     *   If the FIFO has no room for all of them, none is written and an error is reported.
+     *
+     *    @param src array holding the values to be written
+     *    @param off position in the array of the first value
+     *    @param len number of values to be written
+     *    @throws MemException when the FIFO has no room for the values
+     */
+
+    @Override
+    public void writeAll (int [] src, int off, int len) throws MemException
+    {
+        int loc = inPnt & mask,
+            first;                                     // number of values written before the wrap point
+
+        if (len > size - (inPnt - outPnt))
+            throw new MemException ("Fifo full!");
+        if (len <= 0)
+            return;
+        first = Math.min (len, mem.length - loc);
+        System.arraycopy (src, off, mem, loc, first);
+        System.arraycopy (src, off + first, mem, 0, len - first);
+        inPnt += len;
+    }
+
+    /**
+     *   FIFO batch retrieval.
+     *   The first values that were written are read from it, in order, with at most two array copies.
+     *
+     *    @param dst array where the values are stored, starting at position 0
+     *    @param max maximum number of values to be read
+     *    @return number of values read (0, if the FIFO is empty)
+     */
+
+    @Override
+    public int readUpTo (int [] dst, int max)
+    {
+        int loc = outPnt & mask,
+            n = Math.min (Math.min (max, dst.length), inPnt - outPnt),
+            first;                                     // number of values read before the wrap point
+
+        if (n <= 0)
+            return 0;
+        first = Math.min (n, mem.length - loc);
+        System.arraycopy (mem, loc, dst, 0, first);
+        System.arraycopy (mem, 0, dst, first, n - first);
+        outPnt += n;
+        return n;
+    }
+
+    /**
+     *   Get the number of values in the FIFO.
+     *
+     *    @return number of values in the FIFO
+     */
+
+    @Override
+    public int size ()
+    {
+        return inPnt - outPnt;
+    }
+
+    /**
+     *   Test FIFO current full status.
+     *
+     *    @return true, if FIFO is full -
+     *            false, otherwise
+     */
+
+    @Override
+    public boolean full ()
+    {
+        return inPnt - outPnt == size;
+    }
+
+    /**
+     *   Test FIFO current empty status.
+     *
+     *    @return true, if FIFO is empty -
+     *            false, otherwise
+     */
+
+    @Override
+    public boolean empty ()
+    {
+        return inPnt == outPnt;
+    }
+}
@@ -0,0 +1,83 @@
+package commInfra;
+
+/**
+ *    Memory of integers.
+ *    Non-instantiatable data type. It must be derived.
+ *    Primitive counterpart of the parametric memory, which leaves the storage area to the derived data type.
+ *    Errors are reported.
+ */
+
+public abstract class IntMemObject
+{
+    /**
+     *   Memory write.
+     *   A value is written into it.
+     *   Virtual method, it has to be overridden in a derived data type.
+     *
+     *    @param val value to be written
+     *    @throws MemException when the memory is full
+     */
+
+    public abstract void write (int val) throws MemException;
+
+    /**
+     *   Memory read.
+     *   A value is read from it.
+     *   Virtual method, it has to be overridden in a derived data type.
+     *
+     *    @return value that was read
+     *    @throws MemException when the memory is empty
+     */
+
+    public abstract int read () throws MemException;
+
+    /**
+     *   Memory batch write.
+     *   A sequence of values is written into it; if there is no room for all of them, none is written.
+     *   Virtual method, it has to be overridden in a derived data type.
+     *
+     *    @param src array holding the values to be written
+     *    @param off position in the array of the first value
+     *    @param len number of values to be written
+     *    @throws MemException when the memory has no room for the values
+     */
+
+    public abstract void writeAll (int [] src, int off, int len) throws MemException;
+
+    /**
+     *   Memory batch read.
+     *   Virtual method, it has to be overridden in a derived data type.
+     *
+     *    @param dst array where the values are stored, starting at position 0
+     *    @param max maximum number of values to be read
+     *    @return number of values read
+     */
+
+    public abstract int readUpTo (int [] dst, int max);
+
+    /**
+     *   Get the number of values in the memory.
+     *
+     *    @return number of values in the memory
+     */
+
+    public abstract int size ();
+
+    /**
+     *   Test memory current full status.
+     *
+     *    @return true, if memory is full -
+     *            false, otherwise
+     */
+
+    public abstract boolean full ();
+
+    /**
+     *   Test memory current empty status.
+     *
+     *    @return true, if memory is empty -
+     *            false, otherwise
+     */
+
+    public abstract boolean empty ();
+}
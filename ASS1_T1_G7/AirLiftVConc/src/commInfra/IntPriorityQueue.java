@@ -0,0 +1,292 @@
+package commInfra;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ *    Priority queue of integers.
+ *    The values are retrieved by priority class (the lower class first) and, within the same class, in the order
+ *    they were written.
+ *    It is implemented as a binary heap on a preallocated array of long: each entry packs the priority class, an
+ *    insertion sequence number and the value, so that entries are ordered by plain comparison. Insertion and
+ *    retrieval take O(log n) and do not allocate memory.
+ *    Errors are reported.
+ */
+
+public class IntPriorityQueue extends IntMemObject
+{
+    /**
+     *   Number of bits of the value in an entry.
+     */
+
+    private static final int VALUE_BITS = 28;
+
+    /**
+     *   Number of bits of the sequence number in an entry.
+     */
+
+    private static final int SEQ_BITS = 29;
+
+    /**
+     *   Largest value that may be stored.
+     */
+
+    public static final int MAX_VALUE = (1 << VALUE_BITS) - 1;
+
+    /**
+     *   Largest priority class.
+     */
+
+    public static final int MAX_PRIORITY = (1 << (63 - VALUE_BITS - SEQ_BITS)) - 1;
+
+    /**
+     *   Mask of the sequence number, after shifting.
+     */
+
+    private static final long SEQ_MASK = (1L << SEQ_BITS) - 1;
+
+    /**
+     *   Binary heap of entries.
+     */
+
+    private final long [] heap;
+
+    /**
+     *   Function that assigns a priority class to each value.
+     */
+
+    private final IntUnaryOperator priority;
+
+    /**
+     *   Number of entries in the heap.
+     */
+
+    private int count;
+
+    /**
+     *   Sequence number of the next entry.
+     */
+
+    private long nextSeq;
+
+    /**
+     *   Queue instantiation.
+     *
+     *     @param size maximum number of values in the queue
+     *     @param priority function that assigns a priority class, from 0 to MAX_PRIORITY, to each value
+     *     @throws MemException when the size is not positive or the function does not exist
+     */
+
+    public IntPriorityQueue (int size, IntUnaryOperator priority) throws MemException
+    {
+        if (size <= 0)
+            throw new MemException ("illegal storage size!");
+        if (priority == null)
+            throw new MemException ("illegal priority function!");
+        heap = new long [size];
+        this.priority = priority;
+        count = 0;
+        nextSeq = 0;
+    }
+
+    /**
+     *   Queue insertion.
+     *   A value is written into it, with the priority class assigned by the priority function.
+     *   If the queue is full, or the value or its class are out of range, an error is reported.
+     *
+     *    @param val value to be written
+     *    @throws MemException when the queue is full or the value can not be stored
+     */
+
+    @Override
+    public void write (int val) throws MemException
+    {
+        int prio;
+
+        if (count == heap.length)
+            throw new MemException ("Queue full!");
+        if ((val < 0) || (val > MAX_VALUE))
+            throw new MemException ("illegal value!");
+        prio = priority.applyAsInt (val);
+        if ((prio < 0) || (prio > MAX_PRIORITY))
+            throw new MemException ("illegal priority class!");
+        if (nextSeq > SEQ_MASK)
+            renumber ();
+        siftUp (count, ((long) prio << (SEQ_BITS + VALUE_BITS)) | (nextSeq << VALUE_BITS) | val);
+        nextSeq += 1;
+        count += 1;
+    }
+
+    /**
+     *   Queue retrieval.
+     *   The value with the lowest priority class that was written first is read from it.
+     *   If the queue is empty, an error is reported.
+     *
+     *    @return value read
+     *    @throws MemException when the queue is empty
+     */
+
+    @Override
+    public int read () throws MemException
+    {
+        long first;
+
+        if (count == 0)
+            throw new MemException ("Queue empty!");
+        first = heap[0];
+        count -= 1;
+        if (count > 0)
+            siftDown (0, heap[count]);
+        else nextSeq = 0;                                // the sequence numbers start over
+        return (int) (first & MAX_VALUE);
+    }
+
+    /**
+     *   Queue batch insertion.
+     *   A sequence of values is written into it, each with its own priority class.
+     *   If the queue has no room for all of them, none is written and an error is reported.
+     *
+     *    @param src array holding the values to be written
+     *    @param off position in the array of the first value
+     *    @param len number of values to be written
+     *    @throws MemException when the queue has no room for the values or a value can not be stored
+     */
+
+    @Override
+    public void writeAll (int [] src, int off, int len) throws MemException
+    {
+        if (len > heap.length - count)
+            throw new MemException ("Queue full!");
+        for (int i = 0; i < len; i++)
+            write (src[off + i]);
+    }
+
+    /**
+     *   Queue batch retrieval.
+     *   The values are read in the same order as by successive single retrievals.
+     *
+     *    @param dst array where the values are stored, starting at position 0
+     *    @param max maximum number of values to be read
+     *    @return number of values read (0, if the queue is empty)
+     */
+
+    @Override
+    public int readUpTo (int [] dst, int max)
+    {
+        int n = Math.min (Math.min (max, dst.length), count);
+
+        for (int i = 0; i < n; i++)
+        { dst[i] = (int) (heap[0] & MAX_VALUE);
+            count -= 1;
+            if (count > 0)
+                siftDown (0, heap[count]);
+        }
+        if (count == 0)
+            nextSeq = 0;
+        return n;
+    }
+
+    /**
+     *   Get the number of values in the queue.
+     *
+     *    @return number of values in the queue
+     */
+
+    @Override
+    public int size ()
+    {
+        return count;
+    }
+
+    /**
+     *   Test queue current full status.
+     *
+     *    @return true, if queue is full -
+     *            false, otherwise
+     */
+
+    @Override
+    public boolean full ()
+    {
+        return count == heap.length;
+    }
+
+    /**
+     *   Test queue current empty status.
+     *
+     *    @return true, if queue is empty -
+     *            false, otherwise
+     */
+
+    @Override
+    public boolean empty ()
+    {
+        return count == 0;
+    }
+
+    /**
+     *   Place an entry at a position of the heap, moving it up towards the root while it is smaller than its parent.
+     *
+     *    @param pos initial position of the entry
+     *    @param entry entry to be placed
+     */
+
+    private void siftUp (int pos, long entry)
+    {
+        int parent;
+
+        while (pos > 0)
+        { parent = (pos - 1) >>> 1;
+            if (heap[parent] <= entry)
+                break;
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = entry;
+    }
+
+    /**
+     *   Place an entry at a position of the heap, moving it down towards the leaves while it is larger than one of
+     *   its children.
+     *
+     *    @param pos initial position of the entry
+     *    @param entry entry to be placed
+     */
+
+    private void siftDown (int pos, long entry)
+    {
+        int half = count >>> 1,
+            child;
+
+        while (pos < half)
+        { child = 2 * pos + 1;
+            if ((child + 1 < count) && (heap[child + 1] < heap[child]))
+                child += 1;
+            if (entry <= heap[child])
+                break;
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = entry;
+    }
+
+    /**
+     *   Renumber the entries when the sequence numbers are exhausted.
+     *   The smallest sequence number in use is subtracted from every entry, which keeps both their order and the
+     *   heap property.
+     *
+     *    @throws MemException when the oldest entry still holds the first sequence number
+     */
+
+    private void renumber () throws MemException
+    {
+        long oldest = SEQ_MASK;
+
+        for (int i = 0; i < count; i++)
+            oldest = Math.min (oldest, (heap[i] >>> VALUE_BITS) & SEQ_MASK);
+        if (oldest == 0)
+            throw new MemException ("sequence numbers exhausted!");
+        for (int i = 0; i < count; i++)
+            heap[i] -= oldest << VALUE_BITS;
+        nextSeq -= oldest;
+    }
+}
@@ -0,0 +1,48 @@
+package commInfra;
+
+/**
+ *    Blocking queue of integers.
+ *    Common view of the queues that may be used as a waiting queue in a shared region: a producer never fails
+ *    to insert a value (it waits for free space, if need be) and the consumer blocks while the queue is empty.
+ */
+
+public interface IntQueue
+{
+    /**
+     *   Queue insertion.
+     *
+     *    @param val value to be written
+     *    @throws InterruptedException when the producer is interrupted while waiting for free space
+     */
+
+    public void put (int val) throws InterruptedException;
+
+    /**
+     *   Queue retrieval.
+     *   The consumer blocks while the queue is empty.
+     *
+     *    @return first value that was written
+     *    @throws InterruptedException when the consumer is interrupted while waiting
+     */
+
+    public int take () throws InterruptedException;
+
+    /**
+     *   Bulk queue retrieval.
+     *   The values currently in the queue are moved into an array, up to a maximum number, without blocking.
+     *
+     *    @param dst array where the values are stored, starting at position 0
+     *    @param max maximum number of values to be moved
+     *    @return number of values moved
+     */
+
+    public int drainTo (int [] dst, int max);
+
+    /**
+     *   Get the number of values in the queue.
+     *
+     *    @return number of values in the queue
+     */
+
+    public int size ();
+}
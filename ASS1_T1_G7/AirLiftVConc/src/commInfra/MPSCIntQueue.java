@@ -0,0 +1,218 @@
+package commInfra;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *    Lock-free multi-producer / single-consumer queue of integers.
+ *    It is a bounded ring, sized to a power of two, where each location has a sequence number telling whether it
+ *    is free for the producer that claimed it or holds a value for the consumer: producers claim locations by
+ *    atomically incrementing the tail index and never take a lock; the single consumer spins for a short while
+ *    and then parks until a producer wakes it up.
+ *    The head and the tail indices are kept in separate cache lines, so that producers and the consumer do not
+ *    invalidate each other's line on every operation.
+ *    Errors are reported.
+ */
+
+public class MPSCIntQueue extends MPSCIntQueueHead implements IntQueue
+{
+    /**
+     *   Atomic access to the tail index.
+     */
+
+    private static final AtomicIntegerFieldUpdater<MPSCIntQueueTail> TAIL =
+            AtomicIntegerFieldUpdater.newUpdater (MPSCIntQueueTail.class, "tail");
+
+    /**
+     *   Number of times the consumer checks for a value before parking.
+     */
+
+    private static final int SPIN_TRIES = 128;
+
+    /**
+     *   Internal storage area.
+     */
+
+    private final int [] mem;
+
+    /**
+     *   Sequence number of each location: it is equal to the tail index of the producer that may write into it,
+     *   plus one once the value was written.
+     */
+
+    private final AtomicIntegerArray sequence;
+
+    /**
+     *   Mask applied to the indices to get a location in the storage area.
+     */
+
+    private final int mask;
+
+    /**
+     *   Queue instantiation.
+     *   The size is rounded up to a power of two.
+     *
+     *     @param size minimum number of values the queue can hold
+     *     @throws MemException when the size is not positive
+     */
+
+    public MPSCIntQueue (int size) throws MemException
+    {
+        int capacity = 1;
+
+        if ((size <= 0) || (size > (1 << 30)))
+            throw new MemException ("illegal storage size!");
+        while (capacity < size)
+            capacity <<= 1;
+        mem = new int [capacity];
+        sequence = new AtomicIntegerArray (capacity);
+        for (int i = 0; i < capacity; i++)
+            sequence.set (i, i);
+        mask = capacity - 1;
+    }
+
+    /**
+     *   Queue insertion.
+     *   It may be called by many producers at the same time. A producer that finds the queue full keeps
+     *   yielding until the consumer frees its location; it can not give up, since the location was already
+     *   claimed.
+     *
+     *    @param val value to be written
+     */
+
+    @Override
+    public void put (int val)
+    {
+        int pnt = TAIL.getAndIncrement (this),
+            loc = pnt & mask;
+        Thread consumer;
+
+        while (sequence.get (loc) != pnt)             // the queue is full
+            Thread.yield ();
+        mem[loc] = val;
+        sequence.set (loc, pnt + 1);                  // the value is published
+        consumer = waiter;
+        if (consumer != null)
+            LockSupport.unpark (consumer);
+    }
+
+    /**
+     *   Queue retrieval.
+     *   It must only be called by the consumer. The consumer spins for a short while and then parks while the
+     *   queue is empty.
+     *
+     *    @return first value that was written
+     *    @throws InterruptedException when the consumer is interrupted while waiting
+     */
+
+    @Override
+    public int take () throws InterruptedException
+    {
+        int pnt = head,
+            loc = pnt & mask,
+            tries = SPIN_TRIES,
+            val;
+
+        while (sequence.get (loc) != pnt + 1)         // the queue is empty
+        { if (tries > 0)
+              tries -= 1;
+            else { waiter = Thread.currentThread ();
+                   if (sequence.get (loc) != pnt + 1)
+                       LockSupport.park (this);
+                   waiter = null;
+                   if (Thread.interrupted ())
+                       throw new InterruptedException ();
+                 }
+        }
+        val = mem[loc];
+        sequence.lazySet (loc, pnt + mask + 1);       // the location is freed for the next round
+        head = pnt + 1;
+        return val;
+    }
+
+    /**
+     *   Bulk queue retrieval.
+     *   It must only be called by the consumer. The values already published are moved into an array, up to a
+     *   maximum number, without blocking.
+     *
+     *    @param dst array where the values are stored, starting at position 0
+     *    @param max maximum number of values to be moved
+     *    @return number of values moved
+     */
+
+    @Override
+    public int drainTo (int [] dst, int max)
+    {
+        int pnt = head,
+            limit = Math.min (max, dst.length),
+            n = 0,
+            loc;
+
+        while (n < limit)
+        { loc = (pnt + n) & mask;
+            if (sequence.get (loc) != pnt + n + 1)     // no more values published
+                break;
+            dst[n] = mem[loc];
+            sequence.lazySet (loc, pnt + n + mask + 1);
+            n += 1;
+        }
+        head = pnt + n;
+        return n;
+    }
+
+    /**
+     *   Get the number of values in the queue.
+     *   It is an estimate while producers are inserting values.
+     *
+     *    @return number of values in the queue
+     */
+
+    @Override
+    public int size ()
+    {
+        int n = tail - head;
+
+        return Math.max (0, Math.min (n, mask + 1));
+    }
+}
+
+/**
+ *    Padding ahead of the tail index.
+ */
+
+abstract class MPSCIntQueuePad0
+{
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+/**
+ *    Tail index: number of locations claimed by the producers so far.
+ */
+
+abstract class MPSCIntQueueTail extends MPSCIntQueuePad0
+{
+    volatile int tail;
+}
+
+/**
+ *    Padding between the tail and the head indices.
+ */
+
+abstract class MPSCIntQueuePad1 extends MPSCIntQueueTail
+{
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+/**
+ *    Head index and parked consumer, both written by the consumer only.
+ */
+
+abstract class MPSCIntQueueHead extends MPSCIntQueuePad1
+{
+    volatile int head;
+
+    volatile Thread waiter;
+
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
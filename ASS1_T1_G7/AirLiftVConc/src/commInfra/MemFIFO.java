@@ -79,6 +79,7 @@ public class MemFIFO<R> extends MemObject<R>
 
         if (!empty)
         { val = mem[outPnt];
+            mem[outPnt] = null;                      // the reference is not kept in the storage area
             outPnt = (outPnt + 1) % mem.length;
             empty = (inPnt == outPnt);
         }
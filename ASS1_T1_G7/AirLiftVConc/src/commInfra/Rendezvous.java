@@ -0,0 +1,127 @@
+package commInfra;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *    Rendezvous of two threads.
+ *    The first thread to arrive leaves its value in a single slot and waits; the second one takes it, hands over
+ *    its own value and wakes the first one up directly, so that each meeting is a single thread-to-thread transfer.
+ *    A waiting thread spins for a short while before parking, since its partner is often about to arrive.
+ *    It is meant for a pair of threads at a time: a third thread arriving while two are meeting is paired with
+ *    whichever of them is left waiting.
+ *    Errors are reported.
+ */
+
+public class Rendezvous
+{
+    /**
+     *   Number of times a waiting thread checks for its partner before parking.
+     */
+
+    private static final int SPIN_TRIES = (Runtime.getRuntime ().availableProcessors () > 1) ? 1 << 10 : 0;
+
+    /**
+     *   Thread waiting at the slot.
+     */
+
+    private static final class Node
+    {
+        /**
+         *   Value left by the waiting thread.
+         */
+
+        final int item;
+
+        /**
+         *   Waiting thread.
+         */
+
+        final Thread waiter;
+
+        /**
+         *   Value handed over by the partner.
+         */
+
+        int match;
+
+        /**
+         *   Signaling the partner has arrived and handed over its value.
+         */
+
+        volatile boolean matched;
+
+        /**
+         *   Node instantiation.
+         *
+         *     @param item value left by the waiting thread
+         */
+
+        Node (int item)
+        {
+            this.item = item;
+            waiter = Thread.currentThread ();
+            matched = false;
+        }
+    }
+
+    /**
+     *   Slot where a thread waits for its partner.
+     */
+
+    private final AtomicReference<Node> slot;
+
+    /**
+     *   Rendezvous instantiation.
+     */
+
+    public Rendezvous ()
+    {
+        slot = new AtomicReference<> (null);
+    }
+
+    /**
+     *   Meet a partner and exchange values with it.
+     *   The calling thread blocks until the partner arrives.
+     *
+     *    @param item value to be handed over to the partner
+     *    @return value handed over by the partner
+     *    @throws InterruptedException when the thread is interrupted while waiting, before a partner arrived
+     */
+
+    public int exchange (int item) throws InterruptedException
+    {
+        Node other, me;
+        int tries;
+
+        while (true)
+        { other = slot.get ();
+            if (other != null)                         // a partner is waiting: take its value and wake it up
+            { if (slot.compareAndSet (other, null))
+              { other.match = item;
+                  other.matched = true;
+                  LockSupport.unpark (other.waiter);
+                  return other.item;
+              }
+            }
+            else { me = new Node (item);
+                   if (slot.compareAndSet (null, me))
+                       break;
+                 }
+        }
+
+        tries = SPIN_TRIES;
+        while (!me.matched)
+        { if (tries > 0)
+              tries -= 1;
+            else { LockSupport.park (this);
+                   if (Thread.interrupted () && !me.matched)
+                   { if (slot.compareAndSet (me, null))  // the thread leaves before a partner arrives
+                         throw new InterruptedException ();
+                       Thread.currentThread ().interrupt (); // too late to leave: a partner is handing over
+                   }
+                 }
+        }
+        return me.match;
+    }
+}
@@ -0,0 +1,321 @@
+package commInfra;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ *    Growable FIFO of integers.
+ *    The values are kept in a chain of fixed-size segments, which are allocated as the FIFO grows and released as
+ *    it shrinks (one spare segment is kept, so that a FIFO oscillating around a segment boundary does not allocate
+ *    every time). So the memory in use follows the number of values stored, not the maximum size of the FIFO.
+ *    The segments may be direct buffers, outside the Java heap, which the garbage collector does not have to scan.
+ *    Errors are reported.
+ */
+
+public class SegmentedIntFIFO extends IntMemObject
+{
+    /**
+     *   Segment of the storage area.
+     */
+
+    private static final class Segment
+    {
+        /**
+         *   Values stored in the segment.
+         */
+
+        final IntBuffer data;
+
+        /**
+         *   Next segment in the chain.
+         */
+
+        Segment next;
+
+        /**
+         *   Segment instantiation.
+         *
+         *     @param data values stored in the segment
+         */
+
+        Segment (IntBuffer data)
+        {
+            this.data = data;
+            next = null;
+        }
+    }
+
+    /**
+     *   Maximum number of values in the FIFO.
+     */
+
+    private final int size;
+
+    /**
+     *   Number of values in each segment.
+     */
+
+    private final int segmentSize;
+
+    /**
+     *   Signaling the segments are direct buffers.
+     */
+
+    private final boolean direct;
+
+    /**
+     *   Segment holding the first occupied location.
+     */
+
+    private Segment head;
+
+    /**
+     *   Segment holding the first empty location.
+     */
+
+    private Segment tail;
+
+    /**
+     *   Released segment kept for reuse.
+     */
+
+    private Segment spare;
+
+    /**
+     *   Position of the first occupied location in the head segment.
+     */
+
+    private int outPnt;
+
+    /**
+     *   Position of the first empty location in the tail segment.
+     */
+
+    private int inPnt;
+
+    /**
+     *   Number of values in the FIFO.
+     */
+
+    private int count;
+
+    /**
+     *   FIFO instantiation.
+     *
+     *     @param size maximum number of values in the FIFO
+     *     @param segmentSize number of values in each segment
+     *     @param direct true, if the segments are to be direct buffers, outside the Java heap -
+     *                   false, if they are to be arrays in the Java heap
+     *     @throws MemException when the size or the segment size is not positive
+     */
+
+    public SegmentedIntFIFO (int size, int segmentSize, boolean direct) throws MemException
+    {
+        if (size <= 0)
+            throw new MemException ("illegal storage size!");
+        if ((segmentSize <= 0) || (segmentSize > (1 << 28)))
+            throw new MemException ("illegal segment size!");
+        this.size = size;
+        this.segmentSize = segmentSize;
+        this.direct = direct;
+        head = tail = newSegment ();
+        spare = null;
+        outPnt = inPnt = 0;
+        count = 0;
+    }
+
+    /**
+     *   FIFO insertion.
+     *   A value is written into it. A new segment is added when the last one is full.
+     *   If the FIFO is full, an error is reported.
+     *
+     *    @param val value to be written
+     *    @throws MemException when the FIFO is full
+     */
+
+    @Override
+    public void write (int val) throws MemException
+    {
+        if (count == size)
+            throw new MemException ("Fifo full!");
+        if (inPnt == segmentSize)
+            grow ();
+        tail.data.put (inPnt, val);
+        inPnt += 1;
+        count += 1;
+    }
+
+    /**
+     *   FIFO retrieval.
+     *   A value is read from it. The first segment is released when it has been read completely.
+     *   If the FIFO is empty, an error is reported.
+     *
+     *    @return first value that was written
+     *    @throws MemException when the FIFO is empty
+     */
+
+    @Override
+    public int read () throws MemException
+    {
+        int val;
+
+        if (count == 0)
+            throw new MemException ("Fifo empty!");
+        val = head.data.get (outPnt);
+        outPnt += 1;
+        count -= 1;
+        if (outPnt == segmentSize)
+            shrink ();
+        return val;
+    }
+
+    /**
+     *   FIFO batch insertion.
+     *   A sequence of values is written into it, in order, one segment at a time.
+     *   If the FIFO has no room for all of them, none is written and an error is reported.
+     *
+     *    @param src array holding the values to be written
+     *    @param off position in the array of the first value
+     *    @param len number of values to be written
+     *    @throws MemException when the FIFO has no room for the values
+     */
+
+    @Override
+    public void writeAll (int [] src, int off, int len) throws MemException
+    {
+        int n;                                         // number of values written into the current segment
+
+        if (len > size - count)
+            throw new MemException ("Fifo full!");
+        while (len > 0)
+        { if (inPnt == segmentSize)
+              grow ();
+            n = Math.min (len, segmentSize - inPnt);
+            for (int i = 0; i < n; i++)
+                tail.data.put (inPnt + i, src[off + i]);
+            inPnt += n;
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     *   FIFO batch retrieval.
+     *   The first values that were written are read from it, in order, one segment at a time.
+     *
+     *    @param dst array where the values are stored, starting at position 0
+     *    @param max maximum number of values to be read
+     *    @return number of values read (0, if the FIFO is empty)
+     */
+
+    @Override
+    public int readUpTo (int [] dst, int max)
+    {
+        int total = Math.min (Math.min (max, dst.length), count),
+            done = 0,
+            n;                                         // number of values read from the current segment
+
+        while (done < total)
+        { n = Math.min (total - done, segmentSize - outPnt);
+            for (int i = 0; i < n; i++)
+                dst[done + i] = head.data.get (outPnt + i);
+            outPnt += n;
+            count -= n;
+            done += n;
+            if (outPnt == segmentSize)
+                shrink ();
+        }
+        return total;
+    }
+
+    /**
+     *   Get the number of values in the FIFO.
+     *
+     *    @return number of values in the FIFO
+     */
+
+    @Override
+    public int size ()
+    {
+        return count;
+    }
+
+    /**
+     *   Test FIFO current full status.
+     *
+     *    @return true, if FIFO is full -
+     *            false, otherwise
+     */
+
+    @Override
+    public boolean full ()
+    {
+        return count == size;
+    }
+
+    /**
+     *   Test FIFO current empty status.
+     *
+     *    @return true, if FIFO is empty -
+     *            false, otherwise
+     */
+
+    @Override
+    public boolean empty ()
+    {
+        return count == 0;
+    }
+
+    /**
+     *   Add a segment at the end of the chain.
+     */
+
+    private void grow ()
+    {
+        Segment seg;
+
+        if (spare != null)
+        { seg = spare;
+            spare = null;
+        }
+        else seg = newSegment ();
+        tail.next = seg;
+        tail = seg;
+        inPnt = 0;
+    }
+
+    /**
+     *   Release the first segment of the chain, which has been read completely.
+     *   The last segment is never released; it is just reset, when it is empty.
+     */
+
+    private void shrink ()
+    {
+        Segment seg = head;
+
+        if (seg == tail)
+        { outPnt = inPnt = 0;
+            return;
+        }
+        head = seg.next;
+        seg.next = null;
+        spare = seg;
+        outPnt = 0;
+    }
+
+    /**
+     *   Allocate a segment.
+     *
+     *    @return new segment
+     */
+
+    private Segment newSegment ()
+    {
+        if (direct)
+            return new Segment (ByteBuffer.allocateDirect (segmentSize * Integer.BYTES).order (ByteOrder.nativeOrder ())
+                                          .asIntBuffer ());
+        return new Segment (IntBuffer.allocate (segmentSize));
+    }
+}
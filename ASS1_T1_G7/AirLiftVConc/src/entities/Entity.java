@@ -0,0 +1,37 @@
+package entities;
+
+/**
+ *   Entity of the Air Lift.
+ *
+ *   It holds the life cycle of a pilot, a hostess or a passenger, apart from the thread that runs it, so that it
+ *   may be run by a platform thread or by a virtual thread.
+ *   The entity hands itself over to each operation of the shared regions it calls.
+ */
+
+public abstract class Entity implements Runnable {
+    /**
+     * Entity name.
+     */
+
+    private final String name;
+
+    /**
+     * Instantiation of an entity.
+     *
+     * @param name entity name, which is given to the thread that runs it
+     */
+
+    protected Entity(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get entity name.
+     *
+     * @return entity name
+     */
+
+    public String getName() {
+        return name;
+    }
+}
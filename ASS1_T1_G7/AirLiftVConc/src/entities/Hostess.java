@@ -1,18 +1,17 @@
 package entities;
 
-import main.SimulPar;
 import sharedRegions.DepartureAirport;
 import sharedRegions.DestinationAirport;
 import sharedRegions.Plane;
 
 /**
- *   Hostess thread.
+ *   Hostess.
  *
- *   It simulates the hostess life cycle.
+ *   It simulates the hostess life cycle, which is run by a platform or a virtual thread.
  *   Static solution.
  */
 
-public class Hostess extends Thread {
+public class Hostess extends Entity {
 
     /**
      * Hostess identification.
@@ -51,10 +50,10 @@ public class Hostess extends Thread {
     private final DepartureAirport depAirport;
 
     /**
-     * Reference to the plane.
+     * Reference to the planes of the fleet.
      */
 
-    private final Plane plane;
+    private final Plane[] planes;
 
     /**
      * Reference to the destination airport.
@@ -63,23 +62,23 @@ public class Hostess extends Thread {
     private final DestinationAirport destAirport;
 
     /**
-     * Instantiation of a hostess thread.
+     * Instantiation of a hostess.
      *
-     * @param name        thread name
+     * @param name        entity name
      * @param hostessId   hostess id
      * @param depAirport  reference to the departure airport
-     * @param plane       reference to the plane
+     * @param planes      reference to the planes of the fleet
      * @param destAirport reference to the destination airport
      */
 
-    public Hostess(String name, int hostessId, DepartureAirport depAirport, Plane plane, DestinationAirport destAirport) {
+    public Hostess(String name, int hostessId, DepartureAirport depAirport, Plane[] planes, DestinationAirport destAirport) {
         super(name);
         this.hostessCount = 0;
         this.checkedPassengers = 0;
         this.hostessId = hostessId;
         hostessState = HostessStates.WAIT_FOR_FLIGHT;
         this.depAirport = depAirport;
-        this.plane = plane;
+        this.planes = planes;
         this.destAirport = destAirport;
     }
 
@@ -183,32 +182,30 @@ public class Hostess extends Thread {
 
     /**
      * Life cycle of the hostess.
+     * <p>
+     * The hostess checks the passengers of her lane, until every passenger has been called. When she finishes the
+     * last check of a flight, she informs the plane that it is ready to take off and starts the boarding of the next
+     * flight.
      */
 
     @Override
     public void run() {
         boolean endOp = false;                                       // flag signaling end of operations
-        plane.waitForNextFlight(true);
-        while (!endOp) {
-            depAirport.prepareForPassBoarding();
+        int planeId;                                                 // id of the plane ready to take off
 
-            while (getHostessCount() < SimulPar.MIN) {
-                depAirport.checkDocuments();
-                depAirport.waitForNextPassenger();
-                if (getHostessCount() + getCheckedPassengers() == SimulPar.N) {
-                    endOp = true; break;
-                }
-            }
-            while (getPassengerInQueue() && getHostessCount() < SimulPar.MAX) {
-                depAirport.checkDocuments();
-                depAirport.waitForNextPassenger();
-                if (getHostessCount() + getCheckedPassengers() == SimulPar.N) {
-                    endOp = true; break;
+        depAirport.waitForNextFlight(this, true);
+        depAirport.prepareForPassBoarding(this);
+        while (!endOp) {
+            if (!depAirport.checkDocuments(this))
+                endOp = true;
+            else {
+                planeId = depAirport.waitForNextPassenger(this);
+                if (planeId != -1) {
+                    planes[planeId].informPlaneReadyToTakeOff(this);
+                    if (depAirport.waitForNextFlight(this, false) != -1)
+                        depAirport.prepareForPassBoarding(this);
                 }
             }
-            plane.informPlaneReadyToTakeOff();
-
-            plane.waitForNextFlight(false);
         }
     }
 }
\ No newline at end of file
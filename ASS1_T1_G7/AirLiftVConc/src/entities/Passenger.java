@@ -7,13 +7,13 @@ import sharedRegions.DestinationAirport;
 import sharedRegions.Plane;
 
 /**
- *   Passenger thread.
+ *   Passenger.
  *
- *   It simulates the passenger life cycle.
+ *   It simulates the passenger life cycle, which is run by a platform or a virtual thread.
  *   Static solution.
  */
 
-public class Passenger extends Thread {
+public class Passenger extends Entity {
     /**
      * Passenger identification.
      */
@@ -39,10 +39,10 @@ public class Passenger extends Thread {
     private final DepartureAirport depAirport;
 
     /**
-     * Reference to the plane.
+     * Reference to the planes of the fleet.
      */
 
-    private final Plane plane;
+    private final Plane[] planes;
 
     /**
      * Reference to the destination airport.
@@ -51,22 +51,22 @@ public class Passenger extends Thread {
     private final DestinationAirport destAirport;
 
     /**
-     * Instantiation of a passenger thread.
+     * Instantiation of a passenger.
      *
-     * @param name        thread name
+     * @param name        entity name
      * @param passengerId passenger id
      * @param depAirport  reference to the departure airport
-     * @param plane       reference to the plane
+     * @param planes      reference to the planes of the fleet
      * @param destAirport reference to the destination airport
      */
 
-    public Passenger(String name, int passengerId, DepartureAirport depAirport, Plane plane, DestinationAirport destAirport) {
+    public Passenger(String name, int passengerId, DepartureAirport depAirport, Plane[] planes, DestinationAirport destAirport) {
         super(name);
         this.readyToShowDocuments = false;
         this.passengerId = passengerId;
         passengerState = PassengerStates.GOING_TO_AIRPORT;
         this.depAirport = depAirport;
-        this.plane = plane;
+        this.planes = planes;
         this.readyToShowDocuments = false;
         this.destAirport = destAirport;
     }
@@ -139,16 +139,17 @@ public class Passenger extends Thread {
     public void run() {
         boolean lastPassenger = false;
         int inF;
+        int planeId;                           // id of the plane the passenger boards
 
         this.travelToAirport();                // Takes random time
-        depAirport.waitInQueue();
-        depAirport.showDocuments();
-        depAirport.boardThePlane();
+        depAirport.waitInQueue(this);
+        depAirport.showDocuments(this);
+        planeId = depAirport.boardThePlane(this);
         //plane.setInF(Plane.getInF()+1);
-        plane.waitForEndOfFlight();
-        inF = plane.getInF();
-        lastPassenger = destAirport.leaveThePlane(inF);             //see you later aligator
-        if (lastPassenger) { plane.notifyPilot(); }
+        planes[planeId].waitForEndOfFlight();
+        inF = planes[planeId].getInF();
+        lastPassenger = destAirport.leaveThePlane(this, planeId, inF);             //see you later aligator
+        if (lastPassenger) { planes[planeId].notifyPilot(); }
     }
 
     /**
@@ -159,7 +160,7 @@ public class Passenger extends Thread {
 
     private void travelToAirport() {
         try {
-            sleep((long) (1 + 400 * Math.random()));
+            Thread.sleep((long) (1 + 400 * Math.random()));
         } catch (InterruptedException e) {
             GenericIO.writelnString("Interruption: " + e.getMessage());
             System.exit(1);
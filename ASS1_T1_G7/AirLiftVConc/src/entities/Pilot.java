@@ -1,19 +1,18 @@
 package entities;
 
 import genclass.GenericIO;
-import main.SimulPar;
 import sharedRegions.DepartureAirport;
 import sharedRegions.DestinationAirport;
 import sharedRegions.Plane;
 
 /**
- *   Pilot thread.
+ *   Pilot.
  *
- *   It simulates the pilot life cycle.
+ *   It simulates the pilot life cycle, which is run by a platform or a virtual thread.
  *   Static solution.
  */
 
-public class Pilot extends Thread {
+public class Pilot extends Entity {
     /**
      * Pilot identification.
      */
@@ -38,6 +37,12 @@ public class Pilot extends Thread {
 
     private boolean readyToTakeOff;
 
+    /**
+     * Reference to the departure airport.
+     */
+
+    private final DepartureAirport depAirport;
+
     /**
      * Reference to the plane.
      */
@@ -51,19 +56,21 @@ public class Pilot extends Thread {
     private final DestinationAirport destAirport;
 
     /**
-     * Instantiation of a pilot thread.
+     * Instantiation of a pilot.
      *
-     * @param name       thread name
-     * @param pilotId    pilot id
+     * @param name       entity name
+     * @param pilotId    pilot id, which is also the id of his plane
+     * @param depAirport reference to the departure airport
      * @param plane      reference to the plane
      * @param destAirport reference to the destination airport
      */
 
-    public Pilot(String name, int pilotId, Plane plane, DestinationAirport destAirport) {
+    public Pilot(String name, int pilotId, DepartureAirport depAirport, Plane plane, DestinationAirport destAirport) {
         super(name);
         this.readyToTakeOff = false;
         this.pilotId = pilotId;
         pilotState = PilotStates.AT_TRANSFER_GATE;
+        this.depAirport = depAirport;
         this.plane = plane;
         this.destAirport = destAirport;
     }
@@ -148,24 +155,20 @@ public class Pilot extends Thread {
 
     /**
      * Life cycle of the pilot.
+     * <p>
+     * The pilot flies while the gate scheduler assigns his plane for boarding, that is, until there are no more
+     * passengers to transport.
      */
 
     @Override
     public void run() {
-        boolean endOp = false;                                       // flag signaling end of operations
-
-        plane.parkAtTransferGate();
-        while (!endOp) {
-            plane.informPlaneReadyForBoarding();
-            plane.waitForAllInBoarding();
+        plane.parkAtTransferGate(this);
+        while (depAirport.informPlaneReadyForBoarding(this)) {
+            plane.waitForAllInBoarding(this);
             flyToDestinationPoint();
-            plane.announceArrival();
+            plane.announceArrival(this);
             flyToDeparturePoint();
-            plane.parkAtTransferGate();
-            if (getTransportedPassengers() == SimulPar.N) {
-                plane.reportFinalReport();
-                endOp = true;
-            }
+            plane.parkAtTransferGate(this);
         }
     }
 
@@ -177,7 +180,7 @@ public class Pilot extends Thread {
 
     private void flyToDestinationPoint() {
         try {
-            sleep((long) (1 + 160 * Math.random()));
+            Thread.sleep((long) (1 + 160 * Math.random()));
         } catch (InterruptedException e) {
             GenericIO.writelnString("Interruption: " + e.getMessage());
             System.exit(1);
@@ -192,7 +195,7 @@ public class Pilot extends Thread {
 
     private void flyToDeparturePoint() {
         try {
-            sleep((long) (1 + 149 * Math.random()));
+            Thread.sleep((long) (1 + 149 * Math.random()));
         } catch (InterruptedException e) {
             GenericIO.writelnString("Interruption: " + e.getMessage());
             System.exit(1);
@@ -1,6 +1,7 @@
 /**
  *  Definition of the entities intervening in the Air Lift.
  *  Static solution based on a posteriori reasoning to terminate the pilot and hostess threads.
+ *  Each entity runs its life cycle in a platform or a virtual thread.
  */
 
 package entities;
\ No newline at end of file
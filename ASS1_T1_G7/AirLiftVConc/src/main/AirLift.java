@@ -1,6 +1,7 @@
 package main;
 
 
+import entities.Entity;
 import entities.Hostess;
 import entities.Passenger;
 import entities.Pilot;
@@ -11,13 +12,32 @@ import sharedRegions.DestinationAirport;
 import sharedRegions.GeneralRepos;
 import sharedRegions.Plane;
 
+import java.lang.reflect.Method;
+
 /**
  *   Simulation of the Problem of the Air Lift.
  *   Static solution based on a posteriori reasoning to terminate the Air Lift threads.
+ *   The entities are run by platform threads or, if it is so configured and the Java runtime provides them, by
+ *   virtual threads.
  */
 
 
 public class AirLift {
+    /**
+     * Method that returns a builder of virtual threads, or null if they are not used or not available.
+     * <p>
+     * The virtual threads are reached through reflection, so that the simulation still runs on a Java runtime
+     * that does not provide them.
+     */
+
+    private static final Method OF_VIRTUAL = virtualThreadBuilder();
+
+    /**
+     * Method of the builder of virtual threads that creates an unstarted thread.
+     */
+
+    private static final Method UNSTARTED = (OF_VIRTUAL == null) ? null : unstartedThread();
+
     /**
      * Main method.
      *
@@ -25,13 +45,6 @@ public class AirLift {
      */
 
     public static void main(String[] args) {
-        Passenger[] passenger = new Passenger[SimulPar.N];     // array of passenger threads
-        Pilot pilot;                                            // pilot thread
-        Hostess hostess;                                        // reference to the barber shop
-        DepartureAirport depAirport;                            // reference to the departure airport repository
-        DestinationAirport desAirport;                          // reference to the destination airport repository
-        Plane plane;                                            // reference to the plane repository
-        GeneralRepos repos;                                     // reference to the general repository
         String fileName;                                        // logging file name
         char opt;                                               // selected option
         boolean success;                                        // end of operation flag
@@ -52,29 +65,59 @@ public class AirLift {
                 else success = false;
             } else success = true;
         } while (!success);
+        simulate(fileName);
+    }
+
+    /**
+     * Run a simulation of the configuration defined in SimulPar.
+     * <p>
+     * All the state of a simulation is kept in its own shared regions and threads, so the simulation may be run
+     * repeatedly, or several times at once in the same JVM, as long as each run has its own logging file.
+     * The parameters are compile-time constants, so every run has the same configuration.
+     *
+     * @param fileName logging file name
+     */
+
+    public static void simulate(String fileName) {
+        Passenger[] passenger = new Passenger[SimulPar.N];     // array of passengers
+        Pilot[] pilot = new Pilot[SimulPar.P];                  // array of pilots
+        Hostess[] hostess = new Hostess[SimulPar.H];            // array of hostesses
+        Thread[] passengerThread = new Thread[SimulPar.N];     // array of passenger threads
+        Thread[] pilotThread = new Thread[SimulPar.P];          // array of pilot threads
+        Thread[] hostessThread = new Thread[SimulPar.H];        // array of hostess threads
+        DepartureAirport depAirport;                            // reference to the departure airport repository
+        DestinationAirport desAirport;                          // reference to the destination airport repository
+        Plane[] plane = new Plane[SimulPar.P];                  // reference to the plane repositories
+        GeneralRepos repos;                                     // reference to the general repository
+
         repos = new GeneralRepos(fileName);
         desAirport = new DestinationAirport(repos);
         depAirport = new DepartureAirport(repos);
-        plane = new Plane(repos);
-        pilot = new Pilot("Pilot_" + (1), 0, plane, desAirport);
-        hostess = new Hostess("Hostess_" + (1), 0, depAirport, plane, desAirport);
+        for (int i = 0; i < SimulPar.P; i++) {
+            plane[i] = new Plane(repos);
+            pilot[i] = new Pilot("Pilot_" + (i + 1), i, depAirport, plane[i], desAirport);
+        }
+        for (int i = 0; i < SimulPar.H; i++)
+            hostess[i] = new Hostess("Hostess_" + (i + 1), i, depAirport, plane, desAirport);
         for (int i = 0; i < SimulPar.N; i++) {
             passenger[i] = new Passenger("Passenger_" + (i + 1), i, depAirport, plane, desAirport);
         }
 
         /* start of the simulation */
 
-        pilot.start();
-        hostess.start();
+        for (int i = 0; i < SimulPar.P; i++)
+            (pilotThread[i] = newThread(pilot[i])).start();
+        for (int i = 0; i < SimulPar.H; i++)
+            (hostessThread[i] = newThread(hostess[i])).start();
         for (int i = 0; i < SimulPar.N; i++)
-            passenger[i].start();
+            (passengerThread[i] = newThread(passenger[i])).start();
 
         /* waiting for the end of the simulation */
 
         GenericIO.writelnString();
         for (int i = 0; i < SimulPar.N; i++) {
             try {
-                passenger[i].join();
+                passengerThread[i].join();
             } catch (InterruptedException e) {
                 GenericIO.writelnString("Interruption: " + e.getMessage());
                 System.exit(1);
@@ -82,31 +125,86 @@ public class AirLift {
             GenericIO.writelnString("The passenger " + (i + 1) + " has terminated.");
         }
         GenericIO.writelnString();
-        while (pilot.isAlive()) {
-            //pilot.interrupt();
-            Thread.yield();
+        for (int i = 0; i < SimulPar.P; i++) {
+            try {
+                pilotThread[i].join();
+            } catch (InterruptedException e) {
+                GenericIO.writelnString("Interruption: " + e.getMessage());
+                System.exit(1);
+            }
+            GenericIO.writelnString("The pilot " + (i + 1) + " has terminated.");
+        }
+
+        GenericIO.writelnString();
+        for (int i = 0; i < SimulPar.H; i++) {
+            try {
+                hostessThread[i].join();
+            } catch (InterruptedException e) {
+                GenericIO.writelnString("Interruption: " + e.getMessage());
+                System.exit(1);
+            }
+            GenericIO.writelnString("The hostess " + (i + 1) + " has terminated.");
         }
+
+        GenericIO.writelnString();
+    }
+
+    /**
+     * Create the thread that runs the life cycle of an entity.
+     * <p>
+     * It is a virtual thread, if they are used, and a platform thread otherwise. It is named after the entity.
+     *
+     * @param entity entity to be run
+     * @return thread, not started yet
+     */
+
+    private static Thread newThread(Entity entity) {
+        Thread thread;                                          // thread that runs the entity
+
+        if (OF_VIRTUAL == null)
+            return new Thread(entity, entity.getName());
         try {
-            pilot.join();
-        } catch (InterruptedException e) {
-            GenericIO.writelnString("Interruption: " + e.getMessage());
+            Object builder = OF_VIRTUAL.invoke(null);
+            thread = (Thread) UNSTARTED.invoke(builder, entity);
+        } catch (ReflectiveOperationException e) {
+            GenericIO.writelnString("Creation of the virtual thread of " + entity.getName() + " failed: " + e);
             System.exit(1);
+            return null;
         }
-        GenericIO.writelnString("The pilot " + (1) + " has terminated.");
+        thread.setName(entity.getName());
+        return thread;
+    }
 
-        GenericIO.writelnString();
-        while (hostess.isAlive()) {
-            //hostess.interrupt();
-            Thread.yield();
+    /**
+     * Look up the method that returns a builder of virtual threads.
+     *
+     * @return method Thread.ofVirtual, or null if virtual threads are not used or not available
+     */
+
+    private static Method virtualThreadBuilder() {
+        if (!SimulPar.VIRTUAL_THREADS)
+            return null;
+        try {
+            return Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException e) {
+            GenericIO.writelnString("Virtual threads are not available: the entities run on platform threads.");
+            return null;
         }
+    }
+
+    /**
+     * Look up the method of the builder of virtual threads that creates an unstarted thread.
+     *
+     * @return method Thread.Builder.unstarted
+     */
+
+    private static Method unstartedThread() {
         try {
-            hostess.join();
-        } catch (InterruptedException e) {
-            GenericIO.writelnString("Interruption: " + e.getMessage());
+            return Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException e) {
+            GenericIO.writelnString("Virtual threads are not available: " + e);
             System.exit(1);
+            return null;
         }
-        GenericIO.writelnString("The hostess " + (1) + " has terminated.");
-
-        GenericIO.writelnString();
     }
 }
@@ -0,0 +1,52 @@
+package main;
+
+import genclass.FileOp;
+import genclass.GenericIO;
+import sharedRegions.GeneralRepos;
+
+/**
+ *   Log renderer of the Problem of the Air Lift.
+ *   It prints the state table of a simulation whose state changes were recorded as binary events.
+ */
+
+public class LogRenderer {
+    /**
+     * Main method.
+     *
+     * @param args runtime arguments
+     */
+
+    public static void main(String[] args) {
+        GeneralRepos repos;                                     // reference to the general repository
+        String eventLogFileName;                                // name of the file of binary events
+        String fileName;                                        // logging file name
+        char opt;                                               // selected option
+        boolean success;                                        // end of operation flag
+
+        GenericIO.writelnString("\n" + "      Problem of the Air Lift - Log renderer\n");
+        do {
+            GenericIO.writeString("Binary events file name? ");
+            eventLogFileName = GenericIO.readlnString();
+            success = FileOp.exists(".", eventLogFileName);
+            if (!success)
+                GenericIO.writelnString("There is no file with this name.");
+        } while (!success);
+        do {
+            GenericIO.writeString("Logging file name? ");
+            fileName = GenericIO.readlnString();
+            if (FileOp.exists(".", fileName)) {
+                do {
+                    GenericIO.writeString("There is already a file with this name. Delete it (y - yes; n - no)? ");
+                    opt = GenericIO.readlnChar();
+                } while ((opt != 'y') && (opt != 'n'));
+                if (opt == 'y')
+                    success = true;
+                else success = false;
+            } else success = true;
+        } while (!success);
+
+        repos = new GeneralRepos(fileName, false);
+        repos.replayEvents(eventLogFileName);
+        GenericIO.writelnString("The logging file " + fileName + " was printed.");
+    }
+}
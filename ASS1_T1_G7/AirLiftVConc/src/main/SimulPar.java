@@ -24,6 +24,144 @@ public final class SimulPar
 
     public static final int N = 21;
 
+    /**
+     *   Number of planes in the fleet, each flown by its own pilot.
+     */
+
+    public static final int P = 1;
+
+    /**
+     *   Number of hostesses, each checking the documents of the passengers in her own lane of the boarding queue.
+     */
+
+    public static final int H = 1;
+
+    /**
+     *   Keep the logging file open during the whole simulation behind a write buffer,
+     *   instead of opening and closing it at every state change.
+     */
+
+    public static final boolean LOG_KEEP_OPEN = true;
+
+    /**
+     *   Size (in characters) of the write buffer of the logging file, when it is kept open.
+     */
+
+    public static final int LOG_BUFFER_SIZE = 1 << 16;
+
+    /**
+     *   Compress the logging file with GZIP while it is written. The logging file is then kept open.
+     */
+
+    public static final boolean LOG_GZIP = false;
+
+    /**
+     *   Number of characters after which the logging file is rotated into a new numbered segment.
+     *   There is no rotation by size if it is zero.
+     */
+
+    public static final long LOG_SEGMENT_SIZE = 0;
+
+    /**
+     *   Number of flights after which the logging file is rotated into a new numbered segment.
+     *   There is no rotation by flights if it is zero.
+     */
+
+    public static final int LOG_SEGMENT_FLIGHTS = 0;
+
+    /**
+     *   Make the logging file durable: the complete lines are committed in batches and forced to the storage device
+     *   at the flight boundaries and every LOG_SYNC_INTERVAL milliseconds. The logging file is then kept open.
+     */
+
+    public static final boolean LOG_DURABLE = false;
+
+    /**
+     *   Period (in milliseconds) of the commits of the durable logging file. There is no periodic commit if it is zero.
+     */
+
+    public static final long LOG_SYNC_INTERVAL = 1000;
+
+    /**
+     *   Log the state changes asynchronously: they are published into a ring buffer and a dedicated
+     *   writer thread prints them in the logging file, outside the critical sections of the shared regions.
+     */
+
+    public static final boolean LOG_ASYNC = false;
+
+    /**
+     *   Number of state changes the ring buffer of the asynchronous logging can hold.
+     */
+
+    public static final int LOG_RING_SIZE = 1 << 12;
+
+    /**
+     *   Record the state changes in the logging file as fixed-size binary events, instead of printing the state table.
+     *   The state table is printed afterwards from the binary events by the log renderer.
+     */
+
+    public static final boolean LOG_BINARY = false;
+
+    /**
+     *   Print only the changed column of the state table, together with the counters, for each state change.
+     *   A full line of the state table is printed every LOG_KEYFRAME_INTERVAL state changes.
+     */
+
+    public static final boolean LOG_DELTA = false;
+
+    /**
+     *   Number of state changes between two full lines of the state table, when only the changed columns are printed.
+     */
+
+    public static final int LOG_KEYFRAME_INTERVAL = 64;
+
+    /**
+     *   Period (in milliseconds) at which a sample of the states is printed, instead of printing every state change.
+     *   The entities publish their states without mutual exclusion. Sampling is off if it is zero.
+     */
+
+    public static final long LOG_SAMPLING_PERIOD = 0;
+
+    /**
+     *   Passengers join the boarding queue through a lock-free queue, without entering the departure airport monitor.
+     */
+
+    public static final boolean LOCK_FREE_ARRIVALS = false;
+
+    /**
+     *   Number of passenger ids in each segment of the boarding queue, which then grows and shrinks on demand.
+     *   The boarding queue is a single array sized for all the passengers if it is zero.
+     */
+
+    public static final int BOARDING_SEGMENT_SIZE = 0;
+
+    /**
+     *   Keep the segments of the boarding queue in direct buffers, outside the Java heap.
+     */
+
+    public static final boolean BOARDING_OFF_HEAP = false;
+
+    /**
+     *   Number of priority classes at boarding: the hostess calls the passengers by class (passenger id modulo the
+     *   number of classes, class 0 first) and then by order of arrival. The boarding queue is a plain FIFO if it is zero.
+     */
+
+    public static final int BOARDING_PRIORITY_CLASSES = 0;
+
+    /**
+     *   An arriving passenger joins the shortest lane of the boarding queue. If it is false, he joins the lane given
+     *   by his id (passenger id modulo the number of hostesses).
+     */
+
+    public static final boolean BOARDING_SHORTEST_LANE = true;
+
+    /**
+     *   Run the entities on virtual threads, when the Java runtime provides them (Java 21 or later). If it is false,
+     *   or they are not available, each entity runs on a platform thread.
+     */
+
+    public static final boolean VIRTUAL_THREADS = false;
+
     /**
      *   It can not be instantiated.
      */
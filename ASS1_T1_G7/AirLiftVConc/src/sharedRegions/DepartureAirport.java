@@ -1,24 +1,50 @@
 package sharedRegions;
 
+import commInfra.BlockingIntFIFO;
+import commInfra.IntFIFO;
+import commInfra.IntPriorityQueue;
+import commInfra.IntQueue;
 import commInfra.MemException;
-import commInfra.MemFIFO;
+import commInfra.MPSCIntQueue;
+import commInfra.Rendezvous;
+import commInfra.SegmentedIntFIFO;
 import entities.*;
 import genclass.GenericIO;
 import main.SimulPar;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  *    Departure Airport.
  *
  *    It is responsible to keep a continuously updated account of the entities inside the departure airport
- *    and is implemented as an implicit monitor.
- *    All public methods are executed in mutual exclusion.
- *    There are four internal synchronization points: a single blocking point for the hostess, where she waits until
- *    the plane is ready for boarding so that she may proceed to the next flight;
- *    another single blocking point for the hostess, where she waits for the passengers to arrive at the airport;
- *    another single blocking point for the hostess, where she waits for the passenger at the front of the queue to
- *    show her his documents;
- *    and an array of blocking points, one per each passenger, where he both waits his turn to show the hostess
- *    his documents and waits until she has checked his documents and calls the next passenger.
+ *    and is implemented as an explicit monitor, based on a reentrant lock.
+ *    All public methods, but check documents, are executed in mutual exclusion; when the arrivals are lock-free,
+ *    a passenger joins the boarding queue outside the monitor as well.
+ *    The boarding queue is striped into one lane per hostess: an arriving passenger joins the shortest lane, or the
+ *    lane given by his id, and is called by the hostess of that lane. All the hostesses board the same flight; the
+ *    seats are taken in mutual exclusion, so that each flight still carries from MIN to MAX passengers, and the
+ *    hostess who finishes the last check of a flight informs the plane it is ready to take off.
+ *    It also holds the gate scheduler of the fleet: the pilots whose planes are parked and ready for boarding join
+ *    the gate queue, in the order they arrive, and a hostess takes the next plane from it whenever the boarding of a
+ *    new flight starts.
+ *    There are seven internal synchronization points: an array of blocking points, one per hostess, where she waits
+ *    for the passengers to arrive at her lane, which is the "not empty" condition of the lane, so that an arriving
+ *    passenger only wakes up the hostess of his lane;
+ *    an array of blocking points, one condition per each hostess, where she waits for the passenger she has called
+ *    to board the plane;
+ *    a blocking point for the hostesses, where they wait for a free seat in the flight being boarded;
+ *    a single blocking point for the hostess who starts the boarding of a new flight, where she waits for a plane
+ *    to be ready for boarding;
+ *    an array of blocking points, one condition per each passenger, where he waits his turn to show the hostess
+ *    his documents. Each signal wakes up only the entity concerned;
+ *    an array of blocking points, one condition per each pilot, where he waits at the gate for his plane to be
+ *    boarded;
+ *    and an array of rendezvous, one per hostess, outside the monitor, where the called passenger hands his
+ *    documents over to the hostess and then gets them back once she has checked them.
  */
 
 public class DepartureAirport {
@@ -26,7 +52,7 @@ public class DepartureAirport {
      * Number of passengers in queue waiting for to show their documents to the hostess.
      */
 
-    private int inQ;
+    private final AtomicInteger inQ;
 
     /**
      * Number of passengers waiting in the plane.
@@ -35,40 +61,172 @@ public class DepartureAirport {
     private int inP;
 
     /**
-     * Reference to passenger threads.
+     * Number of passengers called by the hostesses for the flight being boarded.
+     */
+
+    private int flightCalled;
+
+    /**
+     * Number of passengers called by the hostesses since the beginning of the simulation.
+     */
+
+    private int totalCalled;
+
+    /**
+     * True if a plane is being boarded and it has not been informed yet that it is ready to take off.
+     */
+
+    private boolean flightOpen;
+
+    /**
+     * True if a hostess is waiting at the gate for the plane of the next flight.
+     */
+
+    private boolean fetchingPlane;
+
+    /**
+     * Reference to the passengers.
      */
 
     private final Passenger[] passengers;
 
     /**
-     * Reference to hostess thread.
+     * Reference to the hostesses.
+     */
+
+    private final Hostess[] hostesses;
+
+    /**
+     * Reference to the pilots.
+     */
+
+    private final Pilot[] pilots;
+
+    /**
+     * Ids of the planes ready for boarding, waiting for the hostess, in order of arrival.
+     */
+
+    private IntFIFO gate;
+
+    /**
+     * Id of the plane being boarded.
+     */
+
+    private int boardingPlane;
+
+    /**
+     * For each plane, true if the hostess has taken it from the gate queue for boarding.
+     */
+
+    private final boolean[] boardingCleared;
+
+    /**
+     * Number of passengers that boarded a plane since the beginning of the simulation.
+     */
+
+    private int totalBoarded;
+
+    /**
+     * Number of pilots who have ended their operations.
+     */
+
+    private int retiredPilots;
+
+    /**
+     * Waiting queue at the transfer gate, one lane per hostess.
+     * <p>
+     * Each lane has room for one more id than there are passengers: when every passenger has been called, the
+     * id N is written into every lane, to tell its hostess there is no one else to check.
+     */
+
+    private final IntQueue[] lanes;
+
+    /**
+     * For each lane, number of passengers who joined it and have not been called yet, either still in the lane or
+     * already taken by its hostess.
+     * <p>
+     * It is updated outside the monitor, so that it also holds when the passengers join the lanes lock-free.
      */
 
-    private Hostess hostess;
+    private final AtomicIntegerArray laneBacklog;
 
     /**
-     * Waiting queue at the transfer gate.
+     * Ids of the passengers each hostess has taken from her lane, but has not called yet.
      */
 
-    private MemFIFO<Integer> boardingQueue;
+    private final int[][] takenIds;
 
     /**
-     * True if the hostess has finished checking current passenger and can move on to the next.
+     * For each hostess, position in takenIds of the next passenger to be called.
      */
 
-    private boolean readyForNextPassenger;
+    private final int[] nextTaken;
 
     /**
-     * True if the hostess can check next passenger documents.
+     * For each hostess, number of ids in takenIds.
      */
 
-    private boolean readyToCheckDocuments;
+    private final int[] nTaken;
 
     /**
-     * True if the passenger can board the plane after showing documents to hostess.
+     * For each hostess, true if she has finished checking current passenger and can move on to the next.
      */
 
-    private boolean canBoardThePlane;
+    private final boolean[] readyForNextPassenger;
+
+    /**
+     * Rendezvous where the documents change hands between a called passenger and his hostess, one per hostess.
+     */
+
+    private final Rendezvous[] documents;
+
+    /**
+     * Id of the passenger each hostess has called.
+     */
+
+    private final int[] calledPassenger;
+
+    /**
+     * Id of the hostess who has called each passenger.
+     */
+
+    private final int[] calledBy;
+
+    /**
+     * Mutual exclusion lock.
+     */
+
+    private final ReentrantLock lock;
+
+    /**
+     * Conditions where the passengers wait to be called and to be cleared to board, one per passenger.
+     */
+
+    private final Condition[] passengerCond;
+
+    /**
+     * Conditions where the hostesses wait for the passenger they have called, one per hostess.
+     */
+
+    private final Condition[] hostessCond;
+
+    /**
+     * Condition where the hostesses wait for a free seat in the flight being boarded.
+     */
+
+    private final Condition seatCond;
+
+    /**
+     * Condition where a hostess waits for a plane to be ready for boarding.
+     */
+
+    private final Condition gateCond;
+
+    /**
+     * Conditions where the pilots wait at the gate for their planes to be boarded, one per pilot.
+     */
+
+    private final Condition[] pilotCond;
 
     /**
      * Reference to the general repository.
@@ -83,21 +241,85 @@ public class DepartureAirport {
      */
 
     public DepartureAirport(GeneralRepos repos) {
-        hostess = null;
         passengers = new Passenger[SimulPar.N];
-        readyForNextPassenger = false;
-        for (int i = 0; i < SimulPar.N; i++)
+        inQ = new AtomicInteger(0);
+        inP = 0;
+        flightCalled = totalCalled = 0;
+        flightOpen = fetchingPlane = false;
+        lock = new ReentrantLock();
+        passengerCond = new Condition[SimulPar.N];
+        calledBy = new int[SimulPar.N];
+        for (int i = 0; i < SimulPar.N; i++) {
             passengers[i] = null;
+            passengerCond[i] = lock.newCondition();
+            calledBy[i] = -1;
+        }
+        hostesses = new Hostess[SimulPar.H];
+        lanes = new IntQueue[SimulPar.H];
+        laneBacklog = new AtomicIntegerArray(SimulPar.H);
+        takenIds = new int[SimulPar.H][SimulPar.MAX];
+        nextTaken = new int[SimulPar.H];
+        nTaken = new int[SimulPar.H];
+        readyForNextPassenger = new boolean[SimulPar.H];
+        documents = new Rendezvous[SimulPar.H];
+        calledPassenger = new int[SimulPar.H];
+        hostessCond = new Condition[SimulPar.H];
+        for (int i = 0; i < SimulPar.H; i++) {
+            hostesses[i] = null;
+            nextTaken[i] = nTaken[i] = 0;
+            readyForNextPassenger[i] = false;
+            documents[i] = new Rendezvous();
+            calledPassenger[i] = -1;
+            hostessCond[i] = lock.newCondition();
+            lanes[i] = newLane();
+        }
+        seatCond = lock.newCondition();
+        gateCond = lock.newCondition();
+        pilots = new Pilot[SimulPar.P];
+        boardingCleared = new boolean[SimulPar.P];
+        pilotCond = new Condition[SimulPar.P];
+        for (int i = 0; i < SimulPar.P; i++) {
+            pilots[i] = null;
+            boardingCleared[i] = false;
+            pilotCond[i] = lock.newCondition();
+        }
+        boardingPlane = -1;
+        totalBoarded = 0;
+        retiredPilots = 0;
         try {
-            boardingQueue = new MemFIFO<>(new Integer[SimulPar.N]);
+            gate = new IntFIFO(SimulPar.P);
         } catch (MemException e) {
-            GenericIO.writelnString("Instantiation of boarding FIFO failed: " + e.getMessage());
-            boardingQueue = null;
+            GenericIO.writelnString("Instantiation of the gate FIFO failed: " + e.getMessage());
+            gate = null;
             System.exit(1);
         }
         this.repos = repos;
     }
 
+    /**
+     * Instantiate a lane of the boarding queue.
+     *
+     * @return new lane
+     */
+
+    private static IntQueue newLane() {
+        try {
+            if (SimulPar.LOCK_FREE_ARRIVALS)
+                return new MPSCIntQueue(SimulPar.N + 1);
+            if (SimulPar.BOARDING_PRIORITY_CLASSES > 0)
+                return new BlockingIntFIFO(new IntPriorityQueue(SimulPar.N + 1,
+                        id -> Math.floorMod(id, SimulPar.BOARDING_PRIORITY_CLASSES)));
+            if (SimulPar.BOARDING_SEGMENT_SIZE > 0)
+                return new BlockingIntFIFO(new SegmentedIntFIFO(SimulPar.N + 1, SimulPar.BOARDING_SEGMENT_SIZE,
+                        SimulPar.BOARDING_OFF_HEAP));
+            return new BlockingIntFIFO(SimulPar.N + 1);
+        } catch (MemException e) {
+            GenericIO.writelnString("Instantiation of boarding FIFO failed: " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
     /**
      * Operation queue empty
      * <p>
@@ -105,31 +327,128 @@ public class DepartureAirport {
      */
 
     public boolean queueEmpty() {
-        return inQ == 0;
+        return inQ.get() == 0;
     }
 
     /**
-     * Operation prepare for pass boarding
+     * Operation inform plane ready for boarding.
      * <p>
-     * It is called by the hostess while waiting for passengers to arrive at the airport.
+     * It is called by a pilot when his plane is parked at the transfer gate and ready for boarding.
+     * The plane joins the gate queue and the pilot waits until a hostess takes it for boarding. If every passenger
+     * has already boarded, the pilot ends his operations instead, and the last pilot to end them reports the final
+     * report.
+     *
+     * @param pilot calling pilot
+     * @return true, if the plane is being boarded -
+     *         false, if there are no more passengers to transport
      */
 
-    public synchronized void prepareForPassBoarding() {
+    public boolean informPlaneReadyForBoarding(Pilot pilot) {
+        int pilotId = pilot.getPilotId();
+        boolean cleared;                                       // the plane is being boarded
 
-        hostess = (Hostess) Thread.currentThread();
+        lock.lock();
+        try {
+            pilots[pilotId] = pilot;
+            if (totalBoarded < SimulPar.N) {
+                try {
+                    gate.write(pilotId);                       // the plane joins the gate queue
+                } catch (MemException e) {
+                    GenericIO.writelnString("Insertion of plane id in the gate FIFO failed: " + e.getMessage());
+                    System.exit(1);
+                }
+                gateCond.signal();
+                while (!boardingCleared[pilotId] && (totalBoarded < SimulPar.N)) {
+                    try {
+                        pilotCond[pilotId].await();
+                    } catch (InterruptedException e) {
+                        GenericIO.writelnString("Interruption: " + e.getMessage());
+                        System.exit(1);
+                    }
+                }
+            }
+            cleared = boardingCleared[pilotId];
+            boardingCleared[pilotId] = false;
+            if (!cleared) {
+                retiredPilots += 1;
+                if (retiredPilots == SimulPar.P)
+                    repos.reportFinalInfo();
+            }
+            return cleared;
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        ((Hostess) Thread.currentThread()).setHostessState(HostessStates.WAIT_FOR_PASSENGER);
-        repos.setHostessState(((Hostess) Thread.currentThread()).getHostessId(), ((Hostess) Thread.currentThread()).getHostessState());
-        ((Hostess) Thread.currentThread()).setHostessCount(0);
-        inP = 0;
-        while (inQ == 0)                             // the hostess waits for a passenger to arrive
-        {
+    /**
+     * Operation wait for next flight.
+     * <p>
+     * It is called by a hostess while waiting for a plane to be ready for boarding: at the beginning, and after she
+     * has informed the plane of the last flight that it is ready to take off.
+     * She takes the first plane from the gate queue and the boarding starts; its pilot is woken up, and so are the
+     * hostesses waiting for a seat. At the beginning, only the first hostess to arrive waits for the plane.
+     *
+     * @param hostess calling hostess
+     * @param first true, if it is the first flight
+     * @return id of the plane to be boarded, or -1 if another hostess is waiting for it or every passenger has boarded
+     */
+
+    public int waitForNextFlight(Hostess hostess, boolean first) {
+        lock.lock();
+        try {
+            hostess.setHostessState(HostessStates.WAIT_FOR_FLIGHT);
+            if (!first)
+                repos.setHostessState(hostess.getHostessId(), hostess.getHostessState());
+            if (fetchingPlane || flightOpen || (totalBoarded == SimulPar.N))
+                return -1;
+            fetchingPlane = true;
+            while (gate.empty()) {
+                try {
+                    gateCond.await();
+                } catch (InterruptedException e) {
+                    GenericIO.writelnString("Interruption: " + e.getMessage());
+                    System.exit(1);
+                }
+            }
             try {
-                wait();
-            } catch (InterruptedException e) {
-                GenericIO.writelnString("Interruption: " + e.getMessage());
+                boardingPlane = gate.read();                   // the hostess takes the next plane for boarding
+            } catch (MemException e) {
+                GenericIO.writelnString("Retrieval of plane id from the gate FIFO failed: " + e.getMessage());
                 System.exit(1);
             }
+            boardingCleared[boardingPlane] = true;
+            pilots[boardingPlane].setPilotState(PilotStates.READY_FOR_BOARDING);
+            repos.setPilotState(boardingPlane, pilots[boardingPlane].getPilotState());
+            pilotCond[boardingPlane].signal();
+            fetchingPlane = false;
+            flightOpen = true;
+            flightCalled = 0;
+            inP = 0;
+            seatCond.signalAll();
+            return boardingPlane;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Operation prepare for pass boarding
+     * <p>
+     * It is called by a hostess before she starts checking the passengers of a new flight.
+     *
+     * @param hostess calling hostess
+     */
+
+    public void prepareForPassBoarding(Hostess hostess) {
+        lock.lock();
+        try {
+            hostesses[hostess.getHostessId()] = hostess;
+
+            hostess.setHostessState(HostessStates.WAIT_FOR_PASSENGER);
+            repos.setHostessState(hostess.getHostessId(), hostess.getHostessState());
+            hostess.setHostessCount(0);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -137,142 +456,289 @@ public class DepartureAirport {
      * Operation wait in queue.
      * <p>
      * It is called by a passenger while waiting for his turn to show his documents to the hostess.
+     *
+     * @param passenger calling passenger
+     */
+
+    public void waitInQueue(Passenger passenger) {
+        int passengerId = passenger.getPassengerId();
+
+        if (SimulPar.LOCK_FREE_ARRIVALS)
+            joinQueue(passenger);
+        else {
+            lock.lock();
+            try {
+                joinQueue(passenger);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        lock.lock();
+        try {
+            while (!(passenger.getReadyToShowDocuments())) {
+                try {
+                    passengerCond[passengerId].await();
+                } catch (InterruptedException e) {
+                    GenericIO.writelnString("Interruption: " + e.getMessage());
+                    System.exit(1);
+                }
+            }
+            passenger.setReadyToShowDocuments(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The passenger joins the boarding queue.
+     * <p>
+     * It is called by a passenger when he arrives at the airport.
+     * He joins the shortest lane or, if the lanes are assigned by hash, the lane given by his id.
+     * The length of a lane counts the passengers its hostess has already taken from it, but has not called yet.
+     *
+     * @param passenger calling passenger
      */
 
-    public synchronized void waitInQueue() {
+    private void joinQueue(Passenger passenger) {
         int passengerId;                                      // passenger id
+        int lane = 0;                                         // lane the passenger joins
 
-        passengerId = ((Passenger) Thread.currentThread()).getPassengerId();
-        passengers[passengerId] = (Passenger) Thread.currentThread();
+        passengerId = passenger.getPassengerId();
+        passengers[passengerId] = passenger;
         passengers[passengerId].setPassengerState(PassengerStates.IN_QUEUE);
         repos.setPassengerState(passengerId, passengers[passengerId].getPassengerState());
-        inQ++;                                        // the passenger arrives at the airport,
-
+        inQ.incrementAndGet();                        // the passenger arrives at the airport,
+
+        if (!SimulPar.BOARDING_SHORTEST_LANE)
+            lane = passengerId % SimulPar.H;
+        else for (int i = 1; i < SimulPar.H; i++)
+            if (laneBacklog.get(i) < laneBacklog.get(lane))
+                lane = i;
+        laneBacklog.incrementAndGet(lane);
         try {
-            boardingQueue.write(passengerId);                    // the customer sits down to wait for his turn
-        } catch (MemException e) {
+            lanes[lane].put(passengerId);                      // the customer sits down to wait for his turn
+        } catch (InterruptedException e) {
             GenericIO.writelnString("Insertion of customer id in waiting FIFO failed: " + e.getMessage());
             System.exit(1);
         }
-
-        notifyAll();
-
-        while (!(((Passenger) Thread.currentThread()).getReadyToShowDocuments())) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                GenericIO.writelnString("Interruption: " + e.getMessage());
-                System.exit(1);
-            }
-        }
-        ((Passenger) Thread.currentThread()).setReadyToShowDocuments(false);
     }
 
 
     /**
      * Operation check documents.
      * <p>
-     * It is called by the hostess while waiting for the first costumer in queue to show his documents.
+     * It is called by a hostess while waiting for the first costumer in her lane to show his documents.
+     * The hostess waits for a passenger to arrive outside the monitor, blocked in her lane, then waits for a free
+     * seat in the flight being boarded and gets his documents at her rendezvous.
+     * She takes from her lane, at once, the ids of all the passengers waiting that may still board this flight,
+     * unless they board by priority: then she takes them one at a time, so that a passenger with a higher priority
+     * who arrives meanwhile is called first.
+     *
+     * @param hostess calling hostess
+     * @return true, if a passenger was checked -
+     *         false, if every passenger has already been called
      */
 
-    public synchronized void checkDocuments() {
+    public boolean checkDocuments(Hostess hostess) {
+        int hostessId = hostess.getHostessId();
         int passengerId;                                        //passenger id
 
-        ((Hostess) Thread.currentThread()).setHostessState(HostessStates.CHECK_PASSENGER);
-        repos.setHostessState(((Hostess) Thread.currentThread()).getHostessId(), ((Hostess) Thread.currentThread()).getHostessState());
-
-        inQ--;
-        ((Hostess) Thread.currentThread()).setPassengerInQueue(!queueEmpty());
-
+        if (nextTaken[hostessId] == nTaken[hostessId]) {
+            nextTaken[hostessId] = 0;
+            nTaken[hostessId] = lanes[hostessId].drainTo(takenIds[hostessId], (SimulPar.BOARDING_PRIORITY_CLASSES > 0) ? 1
+                    : Math.max(1, SimulPar.MAX - hostess.getHostessCount()));
+            if (nTaken[hostessId] == 0) {
+                try {
+                    takenIds[hostessId][0] = lanes[hostessId].take();   // the hostess waits for a passenger to arrive
+                    nTaken[hostessId] = 1;
+                } catch (InterruptedException e) {
+                    GenericIO.writelnString("Interruption: " + e.getMessage());
+                    System.exit(1);
+                }
+            }
+        }
+        passengerId = takenIds[hostessId][nextTaken[hostessId]++];
+        if (passengerId == SimulPar.N)
+            return false;                                       // there is no one else to check
+        lock.lock();
         try {
-            passengerId = boardingQueue.read();                            // the hostess calls the customer
-            if ((passengerId < 0) || (passengerId >= SimulPar.N))
-                throw new MemException("illegal passenger id!");
-        } catch (MemException e) {
-            GenericIO.writelnString("Retrieval of passenger id from boarding FIFO failed: " + e.getMessage());
-            passengerId = -1;
+            while (!flightOpen || (flightCalled == SimulPar.MAX)) {     // the hostess waits for a free seat
+                try {
+                    seatCond.await();
+                } catch (InterruptedException e) {
+                    GenericIO.writelnString("Interruption: " + e.getMessage());
+                    System.exit(1);
+                }
+            }
+            checkDocuments(hostess, passengerId);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            if (documents[hostessId].exchange(-1) != passengerId)  // the hostess waits for the passenger to give his documents
+                throw new IllegalStateException("documents of another passenger!");
+        } catch (InterruptedException | IllegalStateException e) {
+            GenericIO.writelnString("Check of the documents failed: " + e.getMessage());
             System.exit(1);
         }
+        return true;
+    }
 
-        passengers[passengerId].setReadyToShowDocuments(true);
+    /**
+     * Call the next passenger to show his documents.
+     * <p>
+     * It is called by a hostess while holding the lock. When the last passenger is called, every lane is told there
+     * is no one else to check.
+     *
+     * @param hostess     calling hostess
+     * @param passengerId passenger id
+     */
 
-        notifyAll();
+    private void checkDocuments(Hostess hostess, int passengerId) {
+        int hostessId = hostess.getHostessId();
 
-        while (!readyToCheckDocuments)             // the hostess waits for the passenger to give his documents
-        {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                GenericIO.writelnString("Interruption: " + e.getMessage());
-                System.exit(1);
-            }
+        if ((passengerId < 0) || (passengerId >= SimulPar.N)) {
+            GenericIO.writelnString("Retrieval of passenger id from boarding FIFO failed: illegal passenger id!");
+            System.exit(1);
         }
 
-        readyToCheckDocuments = false;
+        repos.reportCheck(passengerId);
+        hostess.setHostessState(HostessStates.CHECK_PASSENGER);
+        repos.setHostessState(hostessId, hostess.getHostessState());
+
+        inQ.decrementAndGet();
+        laneBacklog.decrementAndGet(hostessId);
+        hostess.setPassengerInQueue(!queueEmpty());
+
+        flightCalled += 1;
+        totalCalled += 1;
+        calledPassenger[hostessId] = passengerId;
+        calledBy[passengerId] = hostessId;
+        passengers[passengerId].setReadyToShowDocuments(true);     // the hostess calls the customer
+        passengerCond[passengerId].signal();
+
+        if (totalCalled == SimulPar.N)
+            for (int i = 0; i < SimulPar.H; i++) {
+                try {
+                    lanes[i].put(SimulPar.N);
+                } catch (InterruptedException e) {
+                    GenericIO.writelnString("Interruption: " + e.getMessage());
+                    System.exit(1);
+                }
+            }
     }
 
     /**
      * Operation show documents.
      * <p>
-     * It is called by a passenger if the hostess has called him to check his documents.
+     * It is called by a passenger if a hostess has called him to check his documents.
+     * The passenger hands his documents over at the rendezvous of that hostess, outside the monitor, and waits
+     * there until she gives them back.
+     *
+     * @param passenger calling passenger
      */
 
-    public synchronized void  showDocuments() {
-        readyToCheckDocuments = true;
+    public void showDocuments(Passenger passenger) {
+        int passengerId = passenger.getPassengerId();
+        Rendezvous desk = documents[calledBy[passengerId]];  // rendezvous of the hostess who called the passenger
 
-        notifyAll();
-        while (!canBoardThePlane)   // the passenger waits until he is clear to proceed
-        {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                GenericIO.writelnString("Interruption: " + e.getMessage());
-                System.exit(1);
-            }
+        try {
+            desk.exchange(passengerId);
+            if (desk.exchange(passengerId) != passengerId)   // the passenger waits until he is clear to proceed
+                throw new IllegalStateException("documents of another passenger!");
+        } catch (InterruptedException | IllegalStateException e) {
+            GenericIO.writelnString("Showing the documents failed: " + e.getMessage());
+            System.exit(1);
         }
-        canBoardThePlane = false;
     }
 
     /**
      * Operation wait for next passenger.
      * <p>
-     * It is called by the hostess while waiting for the next passenger in queue.
+     * It is called by a hostess while waiting for the next passenger in queue.
+     * Once the passenger she has checked is on board, she finds out whether the flight must depart: every passenger
+     * called for it is on board and either the plane is full, every passenger has boarded, or the plane has its
+     * minimum number of passengers and no one else is waiting.
+     *
+     * @param hostess calling hostess
+     * @return id of the plane the hostess must inform that it is ready to take off, or -1 if the boarding goes on
      */
 
-    public synchronized void waitForNextPassenger() {
-        ((Hostess) Thread.currentThread()).setHostessState(HostessStates.WAIT_FOR_PASSENGER);
-        repos.setHostessState(((Hostess) Thread.currentThread()).getHostessId(), ((Hostess) Thread.currentThread()).getHostessState());
-        ((Hostess) Thread.currentThread()).setHostessCount(((Hostess) Thread.currentThread()).getHostessCount()+1);
-        canBoardThePlane = true;
+    public int waitForNextPassenger(Hostess hostess) {
+        int hostessId = hostess.getHostessId();
 
-        notifyAll();
-        while ((inQ == 0 && ((Hostess) Thread.currentThread()).getHostessCount() < 5 || (!readyForNextPassenger)) && !((inP + ((Hostess) Thread.currentThread()).getCheckedPassengers()) >= SimulPar.N))    // the hostess waits for a passenger to enter the plane
-        {
-            //Plane.getInF()
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                GenericIO.writelnString("Interruption: " + e.getMessage());
-                System.exit(1);
-            }
+        lock.lock();
+        try {
+            hostess.setHostessState(HostessStates.WAIT_FOR_PASSENGER);
+            repos.setHostessState(hostessId, hostess.getHostessState());
+            hostess.setHostessCount(flightCalled);
+        } finally {
+            lock.unlock();
         }
 
-        readyForNextPassenger = false;
-        ((Hostess) Thread.currentThread()).setPassengerInQueue(!queueEmpty());
+        try {
+            documents[hostessId].exchange(calledPassenger[hostessId]);         // the hostess gives the documents back
+        } catch (InterruptedException e) {
+            GenericIO.writelnString("Interruption: " + e.getMessage());
+            System.exit(1);
+        }
+
+        lock.lock();
+        try {
+            while (!readyForNextPassenger[hostessId])    // the hostess waits for a passenger to enter the plane
+            {
+                try {
+                    hostessCond[hostessId].await();
+                } catch (InterruptedException e) {
+                    GenericIO.writelnString("Interruption: " + e.getMessage());
+                    System.exit(1);
+                }
+            }
+
+            readyForNextPassenger[hostessId] = false;
+            hostess.setCheckedPassengers(hostess.getCheckedPassengers() + 1);
+            hostess.setPassengerInQueue(!queueEmpty());
+            if (flightOpen && (inP == flightCalled)
+                    && ((flightCalled == SimulPar.MAX) || (totalBoarded == SimulPar.N)
+                        || ((flightCalled >= SimulPar.MIN) && queueEmpty()))) {
+                flightOpen = false;
+                hostess.setHostessCount(flightCalled);
+                return boardingPlane;
+            }
+            return -1;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Operation boarding the plane
      * <p>
      * It is called by the passengers when they are allowed to enter the plane.
+     * When the last passenger boards, the pilots still waiting at the gate are woken up to end their operations.
+     *
+     * @param passenger calling passenger
+     * @return id of the plane being boarded
      */
 
-    public synchronized void boardThePlane() {
+    public int boardThePlane(Passenger passenger) {
+        int passengerId = passenger.getPassengerId();
 
-        readyForNextPassenger = true;
-        inP +=1;
-        ((Passenger) Thread.currentThread()).setPassengerState(PassengerStates.IN_FLIGHT);
-        repos.setPassengerState(((Passenger) Thread.currentThread()).getPassengerId(), ((Passenger) Thread.currentThread()).getPassengerState());
-        notifyAll();
+        lock.lock();
+        try {
+            readyForNextPassenger[calledBy[passengerId]] = true;
+            inP +=1;
+            totalBoarded += 1;
+            passenger.setPassengerState(PassengerStates.IN_FLIGHT);
+            repos.setPassengerState(passengerId, passenger.getPassengerState());
+            hostessCond[calledBy[passengerId]].signal();
+            if (totalBoarded == SimulPar.N)
+                for (int i = 0; i < SimulPar.P; i++)
+                    pilotCond[i].signal();
+            return boardingPlane;
+        } finally {
+            lock.unlock();
+        }
     }
-}
\ No newline at end of file
+}
@@ -9,21 +9,25 @@ import entities.Pilot;
 import genclass.GenericIO;
 import main.SimulPar;
 
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  *    Destination Airport.
  *
  *    It is responsible to keep a continuously updated account of the number of passengers that are already
  *    in the destination airport.
+ *    It is implemented as an explicit monitor, based on a reentrant lock, so that a passenger run by a virtual thread
+ *    does not pin its carrier thread while he is inside.
  *    There are two methods. One to get the total number os passengers in destination airport
  *    and one to increment by one the number of passenger in destination airport.
  */
 
 public class DestinationAirport {
     /**
-     * For each flight, the number of passengers that left the plane.
+     * For the current flight of each plane, the number of passengers that left the plane.
      */
 
-    private int PTAL;
+    private final int[] PTAL;
 
     /**
      * Reference to the general repository.
@@ -31,6 +35,12 @@ public class DestinationAirport {
 
     private final GeneralRepos repos;
 
+    /**
+     * Mutual exclusion lock.
+     */
+
+    private final ReentrantLock lock;
+
     /**
      * Destination airport instantiation.
      *
@@ -38,8 +48,9 @@ public class DestinationAirport {
      */
 
     public DestinationAirport(GeneralRepos repos) {
-        PTAL = 0;
+        PTAL = new int[SimulPar.P];
         this.repos = repos;
+        lock = new ReentrantLock();
     }
 
     /**
@@ -47,18 +58,25 @@ public class DestinationAirport {
      * <p>
      * It is called by the passengers when they leave the plane.
      *
+     * @param passenger calling passenger
+     * @param planeId Id of the plane the passenger flew in.
      * @param inF Number of passengers that flew in this flight.
      * @return Return True if this is the last passenger to leave the plane. Returns false otherwise.
      */
 
-    public synchronized boolean leaveThePlane(int inF) {
+    public boolean leaveThePlane(Passenger passenger, int planeId, int inF) {
         boolean lastPassenger = false;
-        PTAL += 1;
+        lock.lock();
+        try {
+            PTAL[planeId] += 1;
 
-        ((Passenger) Thread.currentThread()).setPassengerState(PassengerStates.AT_DESTINATION);
-        repos.setPassengerState(((Passenger) Thread.currentThread()).getPassengerId(), ((Passenger) Thread.currentThread()).getPassengerState());
+            passenger.setPassengerState(PassengerStates.AT_DESTINATION);
+            repos.setPassengerState(passenger.getPassengerId(), passenger.getPassengerState());
 
-        if (PTAL == inF) { PTAL = 0; lastPassenger = true; }
+            if (PTAL[planeId] == inF) { PTAL[planeId] = 0; lastPassenger = true; }
+        } finally {
+            lock.unlock();
+        }
 
         return lastPassenger;
     }
@@ -1,21 +1,57 @@
 package sharedRegions;
 
+import commInfra.DurableLogWriter;
+import commInfra.EventRing;
+import commInfra.MemException;
 import main.*;
 import entities.*;
 import genclass.GenericIO;
 import genclass.TextFile;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * General Repository.
  *
  * It is responsible to keep the visible internal state of the problem and to
  * provide means for it to be printed in the logging file. It is implemented as
- * an implicit monitor. All public methods are executed in mutual exclusion.
+ * an explicit monitor, based on a reentrant lock, so that an entity run by a
+ * virtual thread does not pin its carrier thread while printing. All public
+ * methods are executed in mutual exclusion.
  * There are no internal synchronization points.
+ * The state table has one column per pilot, that is, per plane of the fleet, and
+ * one column per hostess; the flights are numbered in the order their boarding
+ * starts.
+ * When the logging is asynchronous, the state changes are instead published into
+ * a ring buffer and are printed by a dedicated writer thread, so that the callers
+ * do not wait for the logging file.
+ * When the logging is binary, each state change is recorded as a fixed-size event
+ * (timestamp, kind, entity id and new state) and the state table is printed
+ * afterwards, by replaying the events into a general repository.
+ * When the states are sampled, the entities publish them into per-entity slots
+ * without mutual exclusion and a sampler thread prints a full line of the state
+ * table periodically; the state changes are then not printed one by one.
+ * The logging file may be compressed with GZIP and rotated into numbered segments,
+ * each one starting with the header of the state table.
+ * When the logging file is durable, its complete lines are committed in batches
+ * and forced to the storage device at the flight boundaries and periodically.
  */
 
 public class GeneralRepos {
@@ -25,6 +61,223 @@ public class GeneralRepos {
 
     private String logFileName;
 
+    /**
+     * Text file handler, while a state line is being printed and the logging file is not kept open.
+     */
+
+    private TextFile log;
+
+    /**
+     * Writer of the logging file, when it is kept open during the whole simulation.
+     */
+
+    private Writer logWriter;
+
+    /**
+     * Line separator of the logging file.
+     */
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * True if the logging file is kept open during the whole simulation.
+     */
+
+    private final boolean keepOpen;
+
+    /**
+     * True if the logging file is rotated into numbered segments.
+     */
+
+    private final boolean segmentedLog;
+
+    /**
+     * Number of the current segment of the logging file.
+     */
+
+    private int logSegment;
+
+    /**
+     * Number of characters written into the current segment of the logging file.
+     */
+
+    private long segmentChars;
+
+    /**
+     * Number of flights logged in the current segment of the logging file.
+     * <p>
+     * When the states are sampled, the flights are counted by the hostesses, outside the monitor.
+     */
+
+    private final AtomicInteger segmentFlights;
+
+    /**
+     * Ring buffer of state changes waiting to be printed, when the logging is asynchronous.
+     */
+
+    private EventRing events;
+
+    /**
+     * Writer thread of the state changes, when the logging is asynchronous.
+     */
+
+    private Thread eventWriter;
+
+    /**
+     * True if the state changes are published into a ring buffer and printed by a writer thread.
+     */
+
+    private final boolean asyncLog;
+
+    /**
+     * True if the state changes are recorded as binary events, instead of printing the state table.
+     */
+
+    private final boolean binaryLog;
+
+    /**
+     * True if the states are sampled periodically, instead of printing every state change.
+     */
+
+    private final boolean sampledLog;
+
+    /**
+     * Slots where the passengers publish their states, when the states are sampled.
+     */
+
+    private AtomicIntegerArray passengerSlots;
+
+    /**
+     * Slots where the hostesses publish their states, when the states are sampled.
+     */
+
+    private AtomicIntegerArray hostessSlots;
+
+    /**
+     * Slots where the pilots publish their states, when the states are sampled.
+     */
+
+    private AtomicIntegerArray pilotSlots;
+
+    /**
+     * Number of passengers who boarded the plane of the current flight, when the states are sampled.
+     */
+
+    private AtomicInteger sampledBoarded;
+
+    /**
+     * Number of flights that departed, when the states are sampled.
+     */
+
+    private int sampledFlights;
+
+    /**
+     * Sampler thread of the states.
+     */
+
+    private Thread sampler;
+
+    /**
+     * True while the sampler thread must go on printing samples.
+     */
+
+    private volatile boolean sampling;
+
+    /**
+     * Output stream of the binary events.
+     */
+
+    private DataOutputStream eventLog;
+
+    /**
+     * Instant (in nanoseconds) when the recording of the binary events started.
+     */
+
+    private long eventLogStart;
+
+    /**
+     * Identification of a file of binary events.
+     */
+
+    private static final int EVENT_LOG_MAGIC = 0x414C4556;
+
+    /**
+     * Version of the format of a file of binary events.
+     */
+
+    private static final int EVENT_LOG_VERSION = 4;
+
+    /**
+     * Kind of the last state change that was printed.
+     */
+
+    private int lastEventKind;
+
+    /**
+     * Number of state changes printed since the last full line of the state table.
+     */
+
+    private int linesSinceKeyframe;
+
+    /**
+     * Four-character codes of the pilot states, indexed by state.
+     */
+
+    private static final char[][] PILOT_CODES = {"ATRG".toCharArray(), "RDFB".toCharArray(), "WTFB".toCharArray(),
+                                                 "FLFW".toCharArray(), "DRPP".toCharArray(), "FLBK".toCharArray()};
+
+    /**
+     * Four-character codes of the hostess states, indexed by state.
+     */
+
+    private static final char[][] HOSTESS_CODES = {"WTFL".toCharArray(), "WTPS".toCharArray(), "CKPS".toCharArray(),
+                                                   "RDTF".toCharArray()};
+
+    /**
+     * Four-character codes of the passenger states, indexed by state.
+     */
+
+    private static final char[][] PASSENGER_CODES = {"GTAP".toCharArray(), "INQE".toCharArray(), "INFL".toCharArray(),
+                                                     "ATDS".toCharArray()};
+
+    /**
+     * State line being printed.
+     * <p>
+     * It is allocated once, with room for the codes of all the entities and the counters, and reused for every line.
+     */
+
+    private final char[] line;
+
+    /**
+     * Mutual exclusion lock.
+     */
+
+    private final ReentrantLock lock;
+
+    /**
+     * Kind of the event which sets the state of a passenger.
+     */
+
+    private static final int PASSENGER_EVENT = 0;
+
+    /**
+     * Kind of the event which sets the state of the hostess.
+     */
+
+    private static final int HOSTESS_EVENT = 1;
+
+    /**
+     * Kind of the event which sets the state of the pilot.
+     */
+
+    private static final int PILOT_EVENT = 2;
+
+    /**
+     * Kind of the event which reports a passenger was called to have his documents checked.
+     */
+
+    private static final int CHECK_EVENT = 3;
+
     /**
      * State of the passengers
      */
@@ -32,16 +285,52 @@ public class GeneralRepos {
     private int[] passengerState;
 
     /**
-     * State of the hostess
+     * State of the hostesses, indexed by hostess id.
+     */
+
+    private int[] hostessState;
+
+    /**
+     * Id of the hostess whose state changed last.
+     */
+
+    private int currentHostess;
+
+    /**
+     * State of the pilots, indexed by pilot id.
+     */
+
+    private int[] pilotState;
+
+    /**
+     * Id of the pilot whose state changed last.
+     */
+
+    private int currentPilot;
+
+    /**
+     * Number of the current flight of each plane, indexed by pilot id.
      */
 
-    private int hostessState;
+    private int[] flightOfPlane;
 
     /**
-     * State of the pilot.
+     * Id of the plane being boarded.
      */
 
-    private int pilotState;
+    private int boardingPlane;
+
+    /**
+     * Id of the plane of each flight.
+     */
+
+    private int[] planeOfFlight;
+
+    /**
+     * Number of passengers who boarded the plane of the current flight.
+     */
+
+    private int flightBoarded;
 
     /**
      * Instantiation of a general repository object.
@@ -53,47 +342,108 @@ public class GeneralRepos {
     private int InF; // numero passageiros no aviao
     private int PTAL; // numero de passageiros que ja chegaram ao destino
 
-    private int[] passAnteriorState;
-    private int pilotAnteriorState;
-    private int hostessAnteriorState;
+    private int [] pilotAnteriorState;
+    private int [] hostessAnteriorState;
 
     private int numeroDeVoo;
-    private int ndoVoo;
-    private String[] informacaoDosVoos;
-    private List<Integer> queue;
     private int passageiroAtual;
     private int [] passengerPerFlight;
 
     public GeneralRepos (String logFileName)
     {
+        this (logFileName, SimulPar.LOG_SAMPLING_PERIOD > 0, SimulPar.LOG_ASYNC, SimulPar.LOG_BINARY);
+    }
+
+    /**
+     * Instantiation of a general repository object with a given logging format.
+     * <p>
+     * The state changes are logged synchronously by the calling thread and are never sampled, whatever the
+     * logging mode of the simulation, as the log renderer requires when it replays the binary events.
+     *
+     * @param logFileName name of the logging file
+     * @param binaryLog true if the state changes are recorded as binary events -
+     *                  false, if the state table is printed
+     */
+
+    public GeneralRepos (String logFileName, boolean binaryLog)
+    {
+        this (logFileName, false, false, binaryLog);
+    }
+
+    /**
+     * Instantiation of a general repository object with given logging modes.
+     *
+     * @param logFileName name of the logging file
+     * @param sampledLog true if a sample of the states is printed periodically
+     * @param asyncLog true if the state changes are handed over to a writer thread
+     * @param binaryLog true if the state changes are recorded as binary events
+     */
+
+    private GeneralRepos (String logFileName, boolean sampledLog, boolean asyncLog, boolean binaryLog)
+    {
+        this.sampledLog = sampledLog;                         // sampling supersedes the other logging modes
+        this.asyncLog = asyncLog && !sampledLog;
+        this.binaryLog = binaryLog && !sampledLog;
+        segmentedLog = (SimulPar.LOG_SEGMENT_SIZE > 0) || (SimulPar.LOG_SEGMENT_FLIGHTS > 0);
+        keepOpen = SimulPar.LOG_KEEP_OPEN || SimulPar.LOG_GZIP || segmentedLog || SimulPar.LOG_DURABLE;
+        logSegment = 1;
+        segmentFlights = new AtomicInteger(0);
         if ((logFileName == null) || Objects.equals (logFileName, ""))
             this.logFileName = "logger";
         else this.logFileName = logFileName;
-        queue = new ArrayList<>();
         passengerPerFlight = new int  [(SimulPar.N / SimulPar.MIN)+1];
+        planeOfFlight = new int [passengerPerFlight.length];
         passengerState = new int [SimulPar.N+1];
-        passAnteriorState = new int [SimulPar.N+1];
-        for (int i = 0; i < SimulPar.N; i++) {
+        for (int i = 0; i < SimulPar.N; i++)
             passengerState[i] = PassengerStates.GOING_TO_AIRPORT;
-            passAnteriorState[i] = 0;
-        }
+        line = new char[5 * (SimulPar.N + SimulPar.P + SimulPar.H) + 3 * 11 + 6];
+        lock = new ReentrantLock();
 
-        hostessState = HostessStates.WAIT_FOR_FLIGHT;
-        hostessAnteriorState = 0;
-        pilotState = PilotStates.AT_TRANSFER_GATE;
-        pilotAnteriorState = 0;
+        hostessState = new int [SimulPar.H];
+        hostessAnteriorState = new int [SimulPar.H];
+        for (int i = 0; i < SimulPar.H; i++)
+            hostessState[i] = HostessStates.WAIT_FOR_FLIGHT;
+        currentHostess = 0;
+        pilotState = new int [SimulPar.P];
+        pilotAnteriorState = new int [SimulPar.P];
+        flightOfPlane = new int [SimulPar.P];
+        for (int i = 0; i < SimulPar.P; i++)
+            pilotState[i] = PilotStates.AT_TRANSFER_GATE;
+        currentPilot = 0;
+        boardingPlane = 0;
+        flightBoarded = 0;
 
         this.InQ = 0;
         this.InF = 0;
         this.PTAL = 0;
 
-        numeroDeVoo = 1;
+        numeroDeVoo = 0;
         passageiroAtual = 0;
-        informacaoDosVoos = new String[10];
-
 
         reportInitialStatus ();
 
+        if (sampledLog) {
+            passengerSlots = new AtomicIntegerArray(SimulPar.N);
+            hostessSlots = new AtomicIntegerArray(hostessState);
+            pilotSlots = new AtomicIntegerArray(pilotState);
+            sampledBoarded = new AtomicInteger(0);
+            sampledFlights = 0;
+            sampling = true;
+            sampler = new Thread(this::sampleStates, "LogSampler");
+            sampler.setDaemon(true);
+            sampler.start();
+        }
+        if (asyncLog) {
+            try {
+                events = new EventRing(SimulPar.LOG_RING_SIZE);
+            } catch (MemException e) {
+                GenericIO.writelnString("Instantiation of the event ring buffer failed: " + e.getMessage());
+                System.exit(1);
+            }
+            eventWriter = new Thread(this::writeEvents, "LogWriter");
+            eventWriter.setDaemon(true);
+            eventWriter.start();
+        }
     }
 
     /**
@@ -103,10 +453,10 @@ public class GeneralRepos {
      * @param state passenger state
      */
 
-    public synchronized void setPassengerState(int id, int state) {
-        this.passageiroAtual = id;
-        this.passengerState[id] = state;
-        reportStatus();
+    public void setPassengerState(int id, int state) {
+        if (sampledLog) publishPassengerState(id, state);
+        else if (asyncLog) publishEvent(PASSENGER_EVENT, id, state);
+        else updatePassengerState(id, state);
     }
 
     /**
@@ -116,32 +466,434 @@ public class GeneralRepos {
      * @param state hostess state
      */
 
-    public synchronized void setHostessState(int idHostess, int state) {
-        hostessState = state;
-        reportStatus();
+    public void setHostessState(int idHostess, int state) {
+        if (sampledLog) publishHostessState(idHostess, state);
+        else if (asyncLog) publishEvent(HOSTESS_EVENT, idHostess, state);
+        else updateHostessState(idHostess, state);
+    }
+
+    /**
+     * Report a passenger was called by a hostess to have his documents checked.
+     * <p>
+     * It is reported just before the hostess changes her state to checking the passenger.
+     * Nothing is printed when the states are sampled.
+     *
+     * @param id passenger id
+     */
+
+    public void reportCheck(int id) {
+        if (sampledLog) return;
+        if (asyncLog) publishEvent(CHECK_EVENT, id, 0);
+        else updateCheck(id);
     }
 
     /**
      * Set pilot state.
      *
+     * @param id    pilot id
      * @param state pilot state
      */
 
-    public synchronized void setPilotState(int state) {
-        pilotState = state;
-        reportStatus();
+    public void setPilotState(int id, int state) {
+        if (sampledLog) publishPilotState(id, state);
+        else if (asyncLog) publishEvent(PILOT_EVENT, id, state);
+        else updatePilotState(id, state);
     }
 
     /**
-     * Set Info of the flight.
+     * Update passenger state and print it.
+     * <p>
+     * The counters are updated from the transition of this passenger alone.
      *
-     * @param nVoo number of the flight since the begin.
-     * @param npassageiros number of passengers a board.
+     * @param id    passenger id
+     * @param state passenger state
      */
 
-    public synchronized void setInfoVoo(int nVoo, int npassageiros) {
-        this.ndoVoo = nVoo;
-        informacaoDosVoos[nVoo-1] = nVoo + ":" + npassageiros;
+    private void updatePassengerState(int id, int state) {
+        lock.lock();
+        try {
+            if (binaryLog) {
+                recordEvent(PASSENGER_EVENT, id, state);
+                return;
+            }
+            switch (state) {
+                case PassengerStates.IN_QUEUE:
+                    if (passengerState[id] == PassengerStates.GOING_TO_AIRPORT)
+                        InQ++;
+                    break;
+                case PassengerStates.IN_FLIGHT:
+                    if (passengerState[id] == PassengerStates.IN_QUEUE) {
+                        InQ--;
+                        InF++;
+                        flightBoarded++;
+                    }
+                    break;
+                case PassengerStates.AT_DESTINATION:
+                    if (passengerState[id] == PassengerStates.IN_FLIGHT) {
+                        InF--;
+                        PTAL++;
+                    }
+                    break;
+            }
+            this.passageiroAtual = id;
+            this.passengerState[id] = state;
+            lastEventKind = PASSENGER_EVENT;
+            reportStatus();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Update hostess state and print it.
+     *
+     * @param idHostess unique identifier of hostess
+     * @param state hostess state
+     */
+
+    private void updateHostessState(int idHostess, int state) {
+        lock.lock();
+        try {
+            if (binaryLog) {
+                recordEvent(HOSTESS_EVENT, idHostess, state);
+                return;
+            }
+            hostessState[idHostess] = state;
+            currentHostess = idHostess;
+            lastEventKind = HOSTESS_EVENT;
+            reportStatus();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Print the check of a passenger.
+     *
+     * @param id passenger id
+     */
+
+    private void updateCheck(int id) {
+        lock.lock();
+        try {
+            if (binaryLog) {
+                recordEvent(CHECK_EVENT, id, 0);
+                return;
+            }
+            openLog();
+            writelnLog("\nFlight " + numeroDeVoo + ": passenger " + id + " checked.");
+            closeLog();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Update pilot state and print it.
+     *
+     * @param id    pilot id
+     * @param state pilot state
+     */
+
+    private void updatePilotState(int id, int state) {
+        lock.lock();
+        try {
+            if (binaryLog) {
+                recordEvent(PILOT_EVENT, id, state);
+                return;
+            }
+            pilotState[id] = state;
+            currentPilot = id;
+            lastEventKind = PILOT_EVENT;
+            reportStatus();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Publish passenger state into its slot, when the states are sampled.
+     * <p>
+     * Only the passenger writes into his slot, so the previous state is known without mutual exclusion and is used
+     * to keep track of the number of passengers in flight.
+     *
+     * @param id    passenger id
+     * @param state passenger state
+     */
+
+    private void publishPassengerState(int id, int state) {
+        int previous = passengerSlots.get(id);          // previous passenger state
+
+        passengerSlots.lazySet(id, state);
+        if (state == PassengerStates.IN_FLIGHT && previous != PassengerStates.IN_FLIGHT)
+            sampledBoarded.incrementAndGet();
+    }
+
+    /**
+     * Publish pilot state into his slot, when the states are sampled.
+     * <p>
+     * The plane of the next flight is taken when its pilot becomes ready for boarding.
+     *
+     * @param id    pilot id
+     * @param state pilot state
+     */
+
+    private void publishPilotState(int id, int state) {
+        if (state == PilotStates.READY_FOR_BOARDING)
+            boardingPlane = id;
+        pilotSlots.lazySet(id, state);
+    }
+
+    /**
+     * Publish hostess state into her slot, when the states are sampled.
+     * <p>
+     * The number of passengers of each flight is taken when a hostess reports the plane is ready to fly.
+     *
+     * @param id    hostess id
+     * @param state hostess state
+     */
+
+    private void publishHostessState(int id, int state) {
+        if (state == HostessStates.READY_TO_FLY && hostessSlots.get(id) == HostessStates.WAIT_FOR_PASSENGER) {
+            passengerPerFlight[sampledFlights] = sampledBoarded.getAndSet(0);
+            planeOfFlight[sampledFlights] = boardingPlane;
+            sampledFlights += 1;
+            segmentFlights.incrementAndGet();
+        }
+        hostessSlots.lazySet(id, state);
+    }
+
+    /**
+     * Life cycle of the sampler thread.
+     * <p>
+     * It prints a sample of the states every LOG_SAMPLING_PERIOD milliseconds, until sampling is stopped.
+     * It is not interrupted to be stopped, so that it never is in the middle of writing into the logging file.
+     */
+
+    private void sampleStates() {
+        while (sampling) {
+            try {
+                Thread.sleep(SimulPar.LOG_SAMPLING_PERIOD);
+            } catch (InterruptedException e) {
+                GenericIO.writelnString("Interruption: " + e.getMessage());
+                System.exit(1);
+            }
+            if (sampling)
+                reportSample();
+        }
+    }
+
+    /**
+     * Print a sample of the states published into the slots.
+     * <p>
+     * The counters are derived from the sample itself, so the printed line is always consistent.
+     */
+
+    private void reportSample() {
+        int len;                                        // length of the state line to be printed
+
+        lock.lock();
+        try {
+            for (int i = 0; i < SimulPar.P; i++)
+                pilotState[i] = pilotSlots.get(i);
+            for (int i = 0; i < SimulPar.H; i++)
+                hostessState[i] = hostessSlots.get(i);
+            InQ = InF = PTAL = 0;
+            for (int i = 0; i < SimulPar.N; i++) {
+                passengerState[i] = passengerSlots.get(i);
+                switch (passengerState[i]) {
+                    case PassengerStates.IN_QUEUE:
+                        InQ++;
+                        break;
+                    case PassengerStates.IN_FLIGHT:
+                        InF++;
+                        break;
+                    case PassengerStates.AT_DESTINATION:
+                        PTAL++;
+                        break;
+                }
+            }
+            openLog();
+            len = putCounters(putStates(0));
+            writelnLog(len);
+            closeLog();
+            flushLog();
+            rotateLog();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Publish a state change into the ring buffer of the asynchronous logging.
+     * <p>
+     * The event is packed into a long value: kind, entity id and new state.
+     *
+     * @param kind  kind of the event
+     * @param id    entity id
+     * @param state new state
+     */
+
+    private void publishEvent(int kind, int id, int state) {
+        try {
+            events.put(((long) kind << 40) | (((long) id & 0xFFFFFFFFL) << 8) | (state & 0xFF));
+        } catch (MemException e) {
+            GenericIO.writelnString("Insertion of the state change in the event ring buffer failed: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            GenericIO.writelnString("Interruption: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Life cycle of the writer thread of the asynchronous logging.
+     * <p>
+     * It prints the state changes in the order they were published, until the ring buffer is closed and drained.
+     */
+
+    private void writeEvents() {
+        long[] batch = new long[SimulPar.LOG_RING_SIZE];   // state changes retrieved at once
+        int n;                                              // number of retrieved state changes
+
+        try {
+            while ((n = events.take(batch)) > 0)
+                updateStates(batch, n);
+        } catch (InterruptedException e) {
+            GenericIO.writelnString("Interruption: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Update and print a batch of state changes retrieved from the ring buffer.
+     *
+     * @param batch state changes packed into long values
+     * @param n     number of state changes
+     */
+
+    private void updateStates(long[] batch, int n) {
+        lock.lock();
+        try {
+            for (int i = 0; i < n; i++) {
+                int id = (int) (batch[i] >>> 8);
+                int state = (int) (batch[i] & 0xFF);
+
+                switch ((int) (batch[i] >>> 40)) {
+                    case PASSENGER_EVENT:
+                        updatePassengerState(id, state);
+                        break;
+                    case HOSTESS_EVENT:
+                        updateHostessState(id, state);
+                        break;
+                    case PILOT_EVENT:
+                        updatePilotState(id, state);
+                        break;
+                    case CHECK_EVENT:
+                        updateCheck(id);
+                        break;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a state change as a binary event.
+     * <p>
+     * Each event takes 16 bytes: timestamp (nanoseconds since the start of the recording), entity id,
+     * kind of the event, new state and two bytes of padding.
+     * The events of the pilot mark the flight boundaries, so the output stream is flushed after them.
+     *
+     * @param kind  kind of the event
+     * @param id    entity id
+     * @param state new state
+     */
+
+    private void recordEvent(int kind, int id, int state) {
+        try {
+            eventLog.writeLong(System.nanoTime() - eventLogStart);
+            eventLog.writeInt(id);
+            eventLog.writeByte(kind);
+            eventLog.writeByte(state);
+            eventLog.writeShort(0);
+            if (kind == PILOT_EVENT)
+                eventLog.flush();
+        } catch (IOException e) {
+            GenericIO.writelnString("The operation of writing the file " + logFileName + " failed!");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Operation replay the binary events.
+     * <p>
+     * It is called by the log renderer to print the state table of a simulation whose state changes were recorded
+     * as binary events. The events are replayed in the order they were recorded, followed by the final report.
+     *
+     * @param eventLogFileName name of the file of binary events
+     */
+
+    public void replayEvents(String eventLogFileName) {
+        DataInputStream in;                                // input stream of the binary events
+        long timestamp;                                    // timestamp of the current event
+        int id, kind, state;                               // entity id, kind and new state of the current event
+
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(new File(".", eventLogFileName)),
+                                                             SimulPar.LOG_BUFFER_SIZE));
+            if ((in.readInt() != EVENT_LOG_MAGIC) || (in.readInt() != EVENT_LOG_VERSION)) {
+                GenericIO.writelnString("The file " + eventLogFileName + " is not a file of binary events!");
+                System.exit(1);
+            }
+            if (in.readInt() != SimulPar.N) {
+                GenericIO.writelnString("The file " + eventLogFileName + " was recorded with a different number of passengers!");
+                System.exit(1);
+            }
+            if (in.readInt() != SimulPar.P) {
+                GenericIO.writelnString("The file " + eventLogFileName + " was recorded with a different number of planes!");
+                System.exit(1);
+            }
+            if (in.readInt() != SimulPar.H) {
+                GenericIO.writelnString("The file " + eventLogFileName + " was recorded with a different number of hostesses!");
+                System.exit(1);
+            }
+            in.readLong();                                 // start of the recording, wall-clock time
+            while (true) {
+                try {
+                    timestamp = in.readLong();
+                    id = in.readInt();
+                    kind = in.readByte();
+                    state = in.readByte();
+                    in.readShort();
+                } catch (EOFException e) {
+                    break;                                 // a truncated last event is discarded
+                }
+                switch (kind) {
+                    case PASSENGER_EVENT:
+                        setPassengerState(id, state);
+                        break;
+                    case HOSTESS_EVENT:
+                        setHostessState(id, state);
+                        break;
+                    case PILOT_EVENT:
+                        setPilotState(id, state);
+                        break;
+                    case CHECK_EVENT:
+                        reportCheck(id);
+                        break;
+                    default:
+                        GenericIO.writelnString("Illegal event in the file " + eventLogFileName + " at " + timestamp + " ns!");
+                        System.exit(1);
+                }
+            }
+            in.close();
+        } catch (IOException e) {
+            GenericIO.writelnString("The operation of reading the file " + eventLogFileName + " failed!");
+            System.exit(1);
+        }
+        reportFinalInfo();
     }
 
     /**
@@ -150,178 +902,487 @@ public class GeneralRepos {
      */
 
     private void reportInitialStatus() {
-        TextFile log = new TextFile(); // instantiation of a text file handler
+        if (binaryLog) {
+            try {
+                eventLog = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(".", logFileName)),
+                                                                         SimulPar.LOG_BUFFER_SIZE));
+                eventLog.writeInt(EVENT_LOG_MAGIC);
+                eventLog.writeInt(EVENT_LOG_VERSION);
+                eventLog.writeInt(SimulPar.N);
+                eventLog.writeInt(SimulPar.P);
+                eventLog.writeInt(SimulPar.H);
+                eventLog.writeLong(System.currentTimeMillis());
+            } catch (IOException e) {
+                GenericIO.writelnString("The operation of creating the file " + logFileName + " failed!");
+                System.exit(1);
+            }
+            eventLogStart = System.nanoTime();
+            return;
+        }
+        if (keepOpen)
+            openLogWriter();
+        else {
+            log = new TextFile(); // instantiation of a text file handler
+            if (!log.openForWriting(".", logFileName)) {
+                GenericIO.writelnString("The operation of creating the file " + logFileName + " failed!");
+                System.exit(1);
+            }
+        }
+        writeHeader();
+        closeLog();
+    }
+
+    /**
+     * Print the header of the state table.
+     * <p>
+     * The pilot and hostess columns are numbered only when there is more than one of them.
+     */
+
+    private void writeHeader() {
+        StringBuilder header = new StringBuilder();             // header of the state table
+
+        writelnLog("                                          Airlift - Description of the internal state");
+        writelnLog("");
+        for (int i = 0; i < SimulPar.P; i++)
+            putTitle(header, SimulPar.P == 1 ? "PT" : "PT" + i);
+        for (int i = 0; i < SimulPar.H; i++)
+            putTitle(header, SimulPar.H == 1 ? "HT" : "HT" + i);
+        for (int i = 0; i < SimulPar.N; i++)
+            putTitle(header, (i > 9 ? "P" : "P0") + i);
+        writelnLog(header.append("InQ InF PTAL").toString());
+        if (SimulPar.LOG_DELTA)
+            writelnLog("(lines starting with + hold only the changed column and the counters; a full line is printed every "
+                       + SimulPar.LOG_KEYFRAME_INTERVAL + " state changes)");
+    }
+
+    /**
+     * Put the title of an entity column into the header of the state table.
+     * <p>
+     * The column is as wide as a state code and its separator, as in the state line.
+     *
+     * @param header header of the state table
+     * @param title title of the column
+     */
 
-        if (!log.openForWriting(".", logFileName)) {
-            GenericIO.writelnString("The operation of creating the file " + logFileName + " failed!");
+    private void putTitle(StringBuilder header, String title) {
+        String column = (title.length() < 4) ? " " + title : title;   // title of the column, indented if short
+
+        header.append(column);
+        for (int i = column.length(); i < 5; i++)
+            header.append(' ');
+    }
+
+    /**
+     * Create the logging file, or its current segment, to be kept open behind a buffered writer.
+     * <p>
+     * If the logging file is compressed, the GZIP stream is flushed along with the writer, so that the file can be
+     * decompressed up to the last flush.
+     * If the logging file is durable, the writer commits the complete lines and forces the file when it is flushed.
+     */
+
+    private void openLogWriter() {
+        String fileName = logFileName;                  // name of the file to be created
+        FileOutputStream fileOut;                       // file output stream
+        OutputStream out;                               // output stream of the file
+
+        if (segmentedLog)
+            fileName += String.format(".%03d", logSegment);
+        if (SimulPar.LOG_GZIP)
+            fileName += ".gz";
+        try {
+            out = fileOut = new FileOutputStream(new File(".", fileName));
+            if (SimulPar.LOG_GZIP)
+                out = new GZIPOutputStream(out, SimulPar.LOG_BUFFER_SIZE, true);
+            if (SimulPar.LOG_DURABLE)
+                logWriter = new DurableLogWriter(fileOut, out, SimulPar.LOG_SYNC_INTERVAL);
+            else logWriter = new BufferedWriter(new OutputStreamWriter(out), SimulPar.LOG_BUFFER_SIZE);
+        } catch (IOException e) {
+            GenericIO.writelnString("The operation of creating the file " + fileName + " failed!");
             System.exit(1);
         }
-        log.writelnString("                                          Airlift - Description of the internal state");
-        log.writelnString("");
-        log.writelnString(
-                " PT   HT   P00  P01  P02  P03  P04  P05  P06  P07  P08  P09  P10  P11  P12  P13  P14  P15  P16  P17  P18  P19  P20 InQ InF PTAL");
-        if (!log.close()) {
+        segmentChars = 0;
+    }
+
+    /**
+     * Rotate the logging file into a new segment, if the current one has reached its size or number of flights.
+     * <p>
+     * The new segment starts with the header of the state table and, if only the changed columns are printed,
+     * with a full line. The flights counted meanwhile belong to the new segment.
+     */
+
+    private void rotateLog() {
+        int flights = segmentFlights.get();             // number of flights logged in the current segment
+
+        if (!segmentedLog
+                || !(((SimulPar.LOG_SEGMENT_SIZE > 0) && (segmentChars >= SimulPar.LOG_SEGMENT_SIZE))
+                     || ((SimulPar.LOG_SEGMENT_FLIGHTS > 0) && (flights >= SimulPar.LOG_SEGMENT_FLIGHTS))))
+            return;
+        segmentFlights.addAndGet(-flights);
+        try {
+            logWriter.close();
+        } catch (IOException e) {
             GenericIO.writelnString("The operation of closing the file " + logFileName + " failed!");
             System.exit(1);
         }
+        logSegment += 1;
+        openLogWriter();
+        writeHeader();
+        linesSinceKeyframe = 0;
     }
 
     /**
-     * Report the status of the General Repository
+     * Open the logging file for appending.
      * <p>
-     * It prints the current states of the hostess, pilot and passengers when one of them changes states.
+     * Nothing is done if the logging file is kept open during the whole simulation.
      */
 
-    private void reportStatus() {
-        TextFile log = new TextFile(); // instantiation of a text file handler
-
-        String lineStatus = ""; // state line to be printed
-
+    private void openLog() {
+        if (keepOpen) return;
+        log = new TextFile(); // instantiation of a text file handler
         if (!log.openForAppending(".", logFileName)) {
             GenericIO.writelnString("The operation of opening for appending the file " + logFileName + " failed!");
             System.exit(1);
         }
+    }
 
-        switch (pilotState) {
-            case PilotStates.AT_TRANSFER_GATE:
-                lineStatus += "ATRG ";
-                pilotAnteriorState = PilotStates.AT_TRANSFER_GATE;
-                break;
-            case PilotStates.READY_FOR_BOARDING:
-                lineStatus += "RDFB ";
-                if (pilotAnteriorState == PilotStates.AT_TRANSFER_GATE) log.writelnString("\nFlight " + numeroDeVoo + ": boarding started.");
-                pilotAnteriorState = PilotStates.READY_FOR_BOARDING;
-                break;
-            case PilotStates.WAITING_FOR_BOARDING:
-                lineStatus += "WTFB ";
-                pilotAnteriorState = PilotStates.WAITING_FOR_BOARDING;
-                break;
-            case PilotStates.FLYING_FORWARD:
-                lineStatus += "FLFW ";
-                pilotAnteriorState = PilotStates.FLYING_FORWARD;
-                break;
-            case PilotStates.DEBOARDING:
-                lineStatus += "DRPP ";
-                if (pilotAnteriorState == PilotStates.FLYING_FORWARD) log.writelnString("\nFlight " + numeroDeVoo + ": arrived.");
-                pilotAnteriorState = PilotStates.DEBOARDING;
-                break;
-            case PilotStates.FLYING_BACK:
-                lineStatus += "FLBK ";
-                if (pilotAnteriorState == PilotStates.DEBOARDING) {
-                    log.writelnString("\nFlight " + numeroDeVoo + ": returning.");
-                    numeroDeVoo++;
-                }
-                pilotAnteriorState = PilotStates.FLYING_BACK;
-                break;
+    /**
+     * Write a line into the logging file.
+     *
+     * @param line line to be written
+     */
+
+    private void writelnLog(String line) {
+        if (keepOpen) {
+            try {
+                logWriter.write(line);
+                logWriter.write(LINE_SEPARATOR);
+                segmentChars += line.length() + 1;
+            } catch (IOException e) {
+                GenericIO.writelnString("The operation of writing the file " + logFileName + " failed!");
+                System.exit(1);
+            }
+        } else log.writelnString(line);
+    }
+
+    /**
+     * Write the state line into the logging file.
+     *
+     * @param len number of characters of the state line
+     */
+
+    private void writelnLog(int len) {
+        if (keepOpen) {
+            try {
+                logWriter.write(line, 0, len);
+                logWriter.write(LINE_SEPARATOR);
+                segmentChars += len + 1;
+            } catch (IOException e) {
+                GenericIO.writelnString("The operation of writing the file " + logFileName + " failed!");
+                System.exit(1);
+            }
+        } else log.writelnString(new String(line, 0, len));
+    }
+
+    /**
+     * Put a four-character code, followed by a space, into the state line.
+     *
+     * @param code code to be put
+     * @param pos  position in the state line
+     * @return position following the code
+     */
+
+    private int putCode(char[] code, int pos) {
+        line[pos] = code[0];
+        line[pos + 1] = code[1];
+        line[pos + 2] = code[2];
+        line[pos + 3] = code[3];
+        line[pos + 4] = ' ';
+        return pos + 5;
+    }
+
+    /**
+     * Put the codes of the states of all the entities into the state line.
+     *
+     * @param pos position in the state line
+     * @return position following the codes
+     */
+
+    private int putStates(int pos) {
+        for (int i = 0; i < SimulPar.P; i++)
+            pos = putCode(PILOT_CODES[pilotState[i]], pos);
+        for (int i = 0; i < SimulPar.H; i++)
+            pos = putCode(HOSTESS_CODES[hostessState[i]], pos);
+        for (int i = 0; i < SimulPar.N; i++)
+            pos = putCode(PASSENGER_CODES[passengerState[i]], pos);
+        return pos;
+    }
+
+    /**
+     * Put the counters InQ, InF and PTAL into the state line.
+     *
+     * @param pos position in the state line
+     * @return position following the counters
+     */
+
+    private int putCounters(int pos) {
+        line[pos++] = ' ';
+        pos = putInt(InQ, 2, ' ', pos);
+        line[pos++] = ' ';
+        line[pos++] = ' ';
+        pos = putInt(InF, 2, ' ', pos);
+        line[pos++] = ' ';
+        line[pos++] = ' ';
+        return putInt(PTAL, 2, ' ', pos);
+    }
+
+    /**
+     * Put a non-negative integer into the state line, padded on the left up to a minimum number of digits.
+     *
+     * @param value     integer to be put
+     * @param minDigits minimum number of digits
+     * @param pad       padding character
+     * @param pos       position in the state line
+     * @return position following the integer
+     */
+
+    private int putInt(int value, int minDigits, char pad, int pos) {
+        int digits = 1;                                 // number of digits of the integer
+        int end;                                        // position following the integer
+
+        for (int v = value / 10; v != 0; v /= 10)
+            digits++;
+        end = pos + Math.max(digits, minDigits);
+        for (int i = end - 1; i >= pos; i--) {
+            if (i >= end - digits) {
+                line[i] = (char) ('0' + value % 10);
+                value /= 10;
+            } else line[i] = pad;
         }
+        return end;
+    }
 
-        switch (hostessState) {
-            case HostessStates.WAIT_FOR_FLIGHT:
-                lineStatus += "WTFL ";
-                hostessAnteriorState = HostessStates.WAIT_FOR_FLIGHT;
-                break;
-            case HostessStates.WAIT_FOR_PASSENGER:
-                lineStatus += "WTPS ";
-                hostessAnteriorState = HostessStates.WAIT_FOR_PASSENGER;
-                break;
-            case HostessStates.CHECK_PASSENGER:
-                lineStatus += "CKPS ";
-                if (hostessAnteriorState == HostessStates.WAIT_FOR_PASSENGER) {
-                    log.writelnString("\nFlight " + numeroDeVoo + ": passenger " + queue.get(0) + " checked.");
-                    queue.remove(0);
-                }
-                hostessAnteriorState = HostessStates.CHECK_PASSENGER;
-                break;
-            case HostessStates.READY_TO_FLY:
-                lineStatus += "RDTF ";
-                if (hostessAnteriorState == HostessStates.WAIT_FOR_PASSENGER) {
-                    log.writelnString("\nFlight " + numeroDeVoo + ": departed with " + InF + " passengers.");
-                    passengerPerFlight[numeroDeVoo-1] = InF;
-                }
-                hostessAnteriorState = HostessStates.READY_TO_FLY;
-                break;
+    /**
+     * Flush the write buffer of the logging file.
+     * <p>
+     * It is called at the flight boundaries, when the logging file is kept open.
+     * If the logging file is durable, the lines written so far are committed.
+     */
+
+    private void flushLog() {
+        if (!keepOpen) return;
+        try {
+            logWriter.flush();
+        } catch (IOException e) {
+            GenericIO.writelnString("The operation of flushing the file " + logFileName + " failed!");
+            System.exit(1);
         }
+    }
 
-        for (int i = 0; i < SimulPar.N; i++)
-            switch (passengerState[i]) {
-                case PassengerStates.GOING_TO_AIRPORT:
-                    lineStatus += "GTAP ";
-                    passAnteriorState[i] = PassengerStates.GOING_TO_AIRPORT;
+    /**
+     * Close the logging file after appending.
+     * <p>
+     * Nothing is done if the logging file is kept open during the whole simulation.
+     */
+
+    private void closeLog() {
+        if (keepOpen) return;
+        if (!log.close()) {
+            GenericIO.writelnString("The operation of closing the file " + logFileName + " failed!");
+            System.exit(1);
+        }
+        log = null;
+    }
+
+    /**
+     * Report the status of the General Repository
+     * <p>
+     * It prints the current states of the hostess, pilots and passengers when one of them changes states.
+     * If only the changed columns are printed, a full line is printed just every LOG_KEYFRAME_INTERVAL state changes.
+     * A flight gets its number when the boarding of its plane starts.
+     */
+
+    private void reportStatus() {
+        int len = 0; // length of the state line to be printed
+        boolean flightBoundary = false; // a flight has departed, arrived or is returning
+        boolean keyframe = !SimulPar.LOG_DELTA || (linesSinceKeyframe == 0); // a full line is printed
+
+        openLog();
+
+        for (int i = 0; i < SimulPar.P; i++) {
+            switch (pilotState[i]) {
+                case PilotStates.AT_TRANSFER_GATE:
+                    pilotAnteriorState[i] = PilotStates.AT_TRANSFER_GATE;
                     break;
-                case PassengerStates.IN_QUEUE:
-                    lineStatus += "INQE ";
-                    if (passAnteriorState[i] == PassengerStates.GOING_TO_AIRPORT) {
-                        queue.add(passageiroAtual);
-                        InQ++;
+                case PilotStates.READY_FOR_BOARDING:
+                    if (pilotAnteriorState[i] == PilotStates.AT_TRANSFER_GATE) {
+                        numeroDeVoo++;
+                        flightOfPlane[i] = numeroDeVoo;
+                        boardingPlane = i;
+                        flightBoarded = 0;
+                        writelnLog("\nFlight " + numeroDeVoo + ": boarding started.");
                     }
-                    passAnteriorState[i] = PassengerStates.IN_QUEUE;
+                    pilotAnteriorState[i] = PilotStates.READY_FOR_BOARDING;
                     break;
-                case PassengerStates.IN_FLIGHT:
-                    lineStatus += "INFL ";
-                    if (passAnteriorState[i] == PassengerStates.IN_QUEUE) {
-                        InQ--;
-                        InF++;
+                case PilotStates.WAITING_FOR_BOARDING:
+                    pilotAnteriorState[i] = PilotStates.WAITING_FOR_BOARDING;
+                    break;
+                case PilotStates.FLYING_FORWARD:
+                    pilotAnteriorState[i] = PilotStates.FLYING_FORWARD;
+                    break;
+                case PilotStates.DEBOARDING:
+                    if (pilotAnteriorState[i] == PilotStates.FLYING_FORWARD) {
+                        writelnLog("\nFlight " + flightOfPlane[i] + ": arrived.");
+                        flightBoundary = true;
                     }
-                    passAnteriorState[i] = PassengerStates.IN_FLIGHT;
+                    pilotAnteriorState[i] = PilotStates.DEBOARDING;
                     break;
-                case PassengerStates.AT_DESTINATION:
-                    lineStatus += "ATDS ";
-                    if (passAnteriorState[i] == PassengerStates.IN_FLIGHT) {
-                        InF--;
-                        PTAL++;
+                case PilotStates.FLYING_BACK:
+                    if (pilotAnteriorState[i] == PilotStates.DEBOARDING) {
+                        writelnLog("\nFlight " + flightOfPlane[i] + ": returning.");
+                        segmentFlights.incrementAndGet();
+                        flightBoundary = true;
                     }
-                    passAnteriorState[i] = PassengerStates.AT_DESTINATION;
+                    pilotAnteriorState[i] = PilotStates.FLYING_BACK;
+                    break;
+            }
+        }
+
+        for (int i = 0; i < SimulPar.H; i++) {
+            switch (hostessState[i]) {
+                case HostessStates.WAIT_FOR_FLIGHT:
+                    hostessAnteriorState[i] = HostessStates.WAIT_FOR_FLIGHT;
+                    break;
+                case HostessStates.WAIT_FOR_PASSENGER:
+                    hostessAnteriorState[i] = HostessStates.WAIT_FOR_PASSENGER;
+                    break;
+                case HostessStates.CHECK_PASSENGER:
+                    hostessAnteriorState[i] = HostessStates.CHECK_PASSENGER;
+                    break;
+                case HostessStates.READY_TO_FLY:
+                    if (hostessAnteriorState[i] == HostessStates.WAIT_FOR_PASSENGER) {
+                        writelnLog("\nFlight " + numeroDeVoo + ": departed with " + flightBoarded + " passengers.");
+                        passengerPerFlight[numeroDeVoo-1] = flightBoarded;
+                        planeOfFlight[numeroDeVoo-1] = boardingPlane;
+                        flightBoundary = true;
+                    }
+                    hostessAnteriorState[i] = HostessStates.READY_TO_FLY;
+                    break;
+            }
+        }
+
+        if (keyframe)
+            len = putStates(len);
+        else {
+            line[len++] = '+';
+            switch (lastEventKind) {
+                case PILOT_EVENT:
+                    line[len++] = 'P'; line[len++] = 'T';
+                    if (SimulPar.P > 1)
+                        len = putInt(currentPilot, 1, '0', len);
+                    while (len < 5)
+                        line[len++] = ' ';
+                    len = putCode(PILOT_CODES[pilotState[currentPilot]], len);
+                    break;
+                case HOSTESS_EVENT:
+                    line[len++] = 'H'; line[len++] = 'T';
+                    if (SimulPar.H > 1)
+                        len = putInt(currentHostess, 1, '0', len);
+                    while (len < 5)
+                        line[len++] = ' ';
+                    len = putCode(HOSTESS_CODES[hostessState[currentHostess]], len);
+                    break;
+                case PASSENGER_EVENT:
+                    line[len++] = 'P';
+                    len = putInt(passageiroAtual, 2, '0', len);
+                    line[len++] = ' ';
+                    len = putCode(PASSENGER_CODES[passengerState[passageiroAtual]], len);
                     break;
             }
-        if (InQ > 9)
-            lineStatus += " " + InQ;
-        else
-            lineStatus += "  " + InQ;
-
-        if (InF > 9)
-            lineStatus += "  " + InF;
-        else
-            lineStatus += "   " + InF;
-
-        if (PTAL > 9)
-            lineStatus += "  " + PTAL;
-        else
-            lineStatus += "   " + PTAL;
-
-        log.writelnString(lineStatus);
-        if (!log.close()) {
-            GenericIO.writelnString("The operation of closing the file " + logFileName + " failed!");
-            System.exit(1);
         }
+        if (SimulPar.LOG_DELTA)
+            linesSinceKeyframe = (linesSinceKeyframe + 1) % SimulPar.LOG_KEYFRAME_INTERVAL;
+
+        len = putCounters(len);
+
+        writelnLog(len);
+        closeLog();
+        if (flightBoundary) flushLog();
+        rotateLog();
     }
 
     /**
-     * Report the final report of the General Repository when the pilot ended all the flights
+     * Report the final report of the General Repository when the pilots ended all the flights
      * <p>
-     * It prints all the flights performed and the amount of passengers that were in each one
+     * It prints all the flights performed and the amount of passengers that were in each one.
+     * When the logging is asynchronous, the pending state changes are printed first.
+     * When the states are sampled, the sampler thread is stopped and a last sample is printed.
      */
 
-    public synchronized void reportFinalInfo() {
-        TextFile log = new TextFile(); // instantiation of a text file handler
+    public void reportFinalInfo() {
+        if (sampledLog) {
+            sampling = false;                           // the sampler thread ends after its current period
+            try {
+                sampler.join();
+            } catch (InterruptedException e) {
+                GenericIO.writelnString("Interruption: " + e.getMessage());
+                System.exit(1);
+            }
+            reportSample();
+        }
+        if (asyncLog) {
+            events.close();
+            try {
+                eventWriter.join();
+            } catch (InterruptedException e) {
+                GenericIO.writelnString("Interruption: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        reportSumUp();
+    }
 
+    /**
+     * Print the sum up of the flights and close the logging file.
+     */
+
+    private void reportSumUp() {
         String lineStatus = ""; // state line to be printed
 
-        if (!log.openForAppending(".", logFileName)) {
-            GenericIO.writelnString("The operation of opening for appending the file " + logFileName + " failed!");
-            System.exit(1);
-        }
+        lock.lock();
+        try {
+            if (binaryLog) {
+                try {
+                    eventLog.close();                       // the sum up is rebuilt by the log renderer
+                } catch (IOException e) {
+                    GenericIO.writelnString("The operation of closing the file " + logFileName + " failed!");
+                    System.exit(1);
+                }
+                return;
+            }
 
-        lineStatus += "\nAirlift sum up:";
-        for (int i = 0; i < passengerPerFlight.length; i++) {
-            if (passengerPerFlight[i] != 0)
-            { lineStatus += "\nFlight " + (i+1) + " transported " + passengerPerFlight[i] + " passengers"; }
-        }
-        lineStatus += ".";
+            openLog();
 
-        log.writelnString(lineStatus);
-        if (!log.close()) {
-            GenericIO.writelnString("The operation of closing the file " + logFileName + " failed!");
-            System.exit(1);
+            lineStatus += "\nAirlift sum up:";
+            for (int i = 0; i < passengerPerFlight.length; i++) {
+                if (passengerPerFlight[i] != 0)
+                { lineStatus += "\nFlight " + (i+1) + " transported " + passengerPerFlight[i] + " passengers";
+                  if (SimulPar.P > 1)
+                      lineStatus += " in plane " + planeOfFlight[i];
+                }
+            }
+            lineStatus += ".";
+
+            writelnLog(lineStatus);
+            if (keepOpen) {
+                try {
+                    logWriter.close();                      // the write buffer is flushed before closing
+                } catch (IOException e) {
+                    GenericIO.writelnString("The operation of closing the file " + logFileName + " failed!");
+                    System.exit(1);
+                }
+            } else closeLog();
+        } finally {
+            lock.unlock();
         }
     }
-}
\ No newline at end of file
+}
@@ -4,19 +4,21 @@ import main.*;
 import entities.*;
 import genclass.GenericIO;
 
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  *    Plane.
  *
  *    It is responsible to keep a continuously updated account of the entities inside the plane
- *    and is implemented as an implicit monitor.
+ *    and is implemented as an explicit monitor, based on a reentrant lock.
  *    All public methods are executed in mutual exclusion.
- *    There are four internal synchronization points: a single blocking point for the hostess, where she waits until
- *    the plane is ready for boarding so that she may proceed to the next flight;
- *    another single blocking point for the hostess, where she waits for the passengers to arrive at the airport;
- *    another single blocking point for the hostess, where she waits for the passenger at the front of the queue to
- *    show her his documents;
- *    and an array of blocking points, one per each passenger, where he both waits his turn to show the hostess
- *    his documents and waits until she has checked his documents and calls the next passenger.
+ *    There is one plane per pilot of the fleet; the plane to be boarded next is assigned by the gate scheduler of
+ *    the departure airport.
+ *    There are two internal synchronization points, one condition per role, each signaled only when a predicate
+ *    its role waits for may have become true: a single blocking point for the pilot, where he waits for all the
+ *    passengers to be on board before taking off and for all of them to leave the plane at the destination;
+ *    and a blocking point for the passengers on board, where they wait for the end of the flight.
  */
 
 public class Plane {
@@ -25,13 +27,13 @@ public class Plane {
      * Reference to number of passengers in the plane.
      */
 
-    private static int inF;
+    private int inF;
 
     /**
-     * True if the pilot communicated to the hostess that the plane is ready for boarding.
+     * Number of passengers the hostess boarded in the current flight.
      */
 
-    private boolean nextFlight;
+    private int boarded;
 
     /**
      * True if the plane is ready to take off per hostess signal.
@@ -45,6 +47,24 @@ public class Plane {
 
     private boolean startDeboarding;
 
+    /**
+     * Mutual exclusion lock.
+     */
+
+    private final ReentrantLock lock;
+
+    /**
+     * Condition where the pilot waits.
+     */
+
+    private final Condition pilotCond;
+
+    /**
+     * Condition where the passengers on board wait.
+     */
+
+    private final Condition passengerCond;
+
     /**
      * Reference to the general repository.
      */
@@ -59,9 +79,12 @@ public class Plane {
 
     public Plane(GeneralRepos repos) {
         inF = 0;
-        nextFlight = false;
+        boarded = 0;
         readyToTakeOff = false;
         startDeboarding = false;
+        lock = new ReentrantLock();
+        pilotCond = lock.newCondition();
+        passengerCond = lock.newCondition();
         this.repos = repos;
     }
 
@@ -73,72 +96,31 @@ public class Plane {
      * @return Number of passengers currently in flight
      */
 
-    public synchronized int getInF() {
-        return inF;
-    }
-
-    /**
-     * Operation to report the final report
-     * <p>
-     * It is called by the pilot after he parks the plane at the transfer gate and there are no more passengers to transport
-     */
-
-    public synchronized void reportFinalReport() {
-        repos.reportFinalInfo();
+    public int getInF() {
+        lock.lock();
+        try {
+            return inF;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Operation park at transfer gate.
      * <p>
      * It is called by the pilot when he parks the plane at the transfer gate.
+     *
+     * @param pilot calling pilot
      */
 
-    public synchronized void parkAtTransferGate() {
-
-        ((Pilot) Thread.currentThread()).setPilotState(PilotStates.AT_TRANSFER_GATE);
-        repos.setPilotState(((Pilot) Thread.currentThread()).getPilotState());
-    }
-
-    /**
-     * Operation inform plane ready for boarding
-     * <p>
-     * It is called by the pilot to inform the hostess that the plane is ready for boarding.
-     */
-
-    public synchronized void informPlaneReadyForBoarding() {
-        nextFlight = true;
-        ((Pilot) Thread.currentThread()).setPilotState(PilotStates.READY_FOR_BOARDING);
-        repos.setPilotState(((Pilot) Thread.currentThread()).getPilotState());
-        notifyAll();
-    }
-
-    /**
-     * Operation wait for next flight
-     * <p>
-     * It is called by the hostess while waiting for plane to be ready for boarding.
-     */
-
-    public synchronized void waitForNextFlight(boolean first) {
-
-        ((Hostess) Thread.currentThread()).setHostessState(HostessStates.WAIT_FOR_FLIGHT);
-        if(!first)
-            repos.setHostessState(((Hostess) Thread.currentThread()).getHostessId(), ((Hostess) Thread.currentThread()).getHostessState());
-
-        ((Hostess) Thread.currentThread()).setCheckedPassengers(((Hostess) Thread.currentThread()).getCheckedPassengers() + inF);
-
-        if (!(((Hostess) Thread.currentThread()).getCheckedPassengers() == SimulPar.N)) {
-            while(!nextFlight)
-            {
-                try {
-                    wait();
-                } catch (InterruptedException e) {
-                    GenericIO.writelnString("Interruption: " + e.getMessage());
-                    System.exit(1);
-                }
-            }
+    public void parkAtTransferGate(Pilot pilot) {
+        lock.lock();
+        try {
+            pilot.setPilotState(PilotStates.AT_TRANSFER_GATE);
+            repos.setPilotState(pilot.getPilotId(), pilot.getPilotState());
+        } finally {
+            lock.unlock();
         }
-        nextFlight = false;
-
     }
 
     /**
@@ -146,36 +128,51 @@ public class Plane {
      * <p>
      * It is called by the pilot after he announced the hostess
      * that the plane is ready for boarding .
+     * The pilot waits both for the hostess signal and for all the passengers she boarded to be seated.
+     *
+     * @param pilot calling pilot
      */
 
-    public synchronized void waitForAllInBoarding() {
-        ((Pilot) Thread.currentThread()).setPilotState(PilotStates.WAITING_FOR_BOARDING);
-        repos.setPilotState(((Pilot) Thread.currentThread()).getPilotState());
-        while (!readyToTakeOff) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                GenericIO.writelnString("While waiting for passenger boarding: " + e.getMessage());
-                System.exit(1);
+    public void waitForAllInBoarding(Pilot pilot) {
+        lock.lock();
+        try {
+            pilot.setPilotState(PilotStates.WAITING_FOR_BOARDING);
+            repos.setPilotState(pilot.getPilotId(), pilot.getPilotState());
+            while (!readyToTakeOff || (inF < boarded)) {
+                try {
+                    pilotCond.await();
+                } catch (InterruptedException e) {
+                    GenericIO.writelnString("While waiting for passenger boarding: " + e.getMessage());
+                    System.exit(1);
+                }
             }
+            readyToTakeOff = false;
+            pilot.setPilotState(PilotStates.FLYING_FORWARD);
+            repos.setPilotState(pilot.getPilotId(), pilot.getPilotState());
+        } finally {
+            lock.unlock();
         }
-        readyToTakeOff = false;
-        ((Pilot) Thread.currentThread()).setPilotState(PilotStates.FLYING_FORWARD);
-        repos.setPilotState(((Pilot) Thread.currentThread()).getPilotState());
     }
 
     /**
      * Operation inform the pilot that the plane is ready to departure.
      * <p>
      * It is called by the hostess when she ended the check in of the passengers.
-     */
-
-    public synchronized void informPlaneReadyToTakeOff() {
-
-        readyToTakeOff = true;
-        ((Hostess) Thread.currentThread()).setHostessState(HostessStates.READY_TO_FLY);
-        repos.setHostessState(((Hostess) Thread.currentThread()).getHostessId(), ((Hostess) Thread.currentThread()).getHostessState());
-        notifyAll();
+     *
+     * @param hostess calling hostess
+     */
+
+    public void informPlaneReadyToTakeOff(Hostess hostess) {
+        lock.lock();
+        try {
+            readyToTakeOff = true;
+            boarded = hostess.getHostessCount();
+            hostess.setHostessState(HostessStates.READY_TO_FLY);
+            repos.setHostessState(hostess.getHostessId(), hostess.getHostessState());
+            pilotCond.signal();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -184,17 +181,22 @@ public class Plane {
      * It is called by the passengers when they are inside the plane and begin their waiting journey.
      */
 
-    public synchronized void waitForEndOfFlight() {
-
-        inF += 1;
-
-        while (!startDeboarding) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                GenericIO.writelnString("Interruption: " + e.getMessage());
-                System.exit(1);
+    public void waitForEndOfFlight() {
+        lock.lock();
+        try {
+            inF += 1;
+            if (readyToTakeOff && (inF == boarded))      // the last passenger to be seated wakes up the pilot
+                pilotCond.signal();
+            while (!startDeboarding) {
+                try {
+                    passengerCond.await();
+                } catch (InterruptedException e) {
+                    GenericIO.writelnString("Interruption: " + e.getMessage());
+                    System.exit(1);
+                }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -202,30 +204,32 @@ public class Plane {
      * Operation announce that the plane has arrived at the destination airport.
      * <p>
      * It is called by the pilot when the plane has arrived at the destination airport.
-     */
-
-    public synchronized void announceArrival() {
-        ((Pilot) Thread.currentThread()).setPilotState(PilotStates.DEBOARDING);
-        repos.setPilotState(((Pilot) Thread.currentThread()).getPilotState());
-
-        ((Pilot) Thread.currentThread()).setTransportedPassengers(((Pilot) Thread.currentThread()).getTransportedPassengers() + inF);
-
-        startDeboarding = true;
-
-        notifyAll();
-
-        while (inF != 0) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                GenericIO.writelnString("Interruption: " + e.getMessage());
-                System.exit(1);
+     *
+     * @param pilot calling pilot
+     */
+
+    public void announceArrival(Pilot pilot) {
+        lock.lock();
+        try {
+            pilot.setPilotState(PilotStates.DEBOARDING);
+            repos.setPilotState(pilot.getPilotId(), pilot.getPilotState());
+            pilot.setTransportedPassengers(pilot.getTransportedPassengers() + inF);
+            startDeboarding = true;
+            passengerCond.signalAll();
+            while (inF != 0) {
+                try {
+                    pilotCond.await();
+                } catch (InterruptedException e) {
+                    GenericIO.writelnString("Interruption: " + e.getMessage());
+                    System.exit(1);
+                }
             }
+            startDeboarding = false;
+            pilot.setPilotState(PilotStates.FLYING_BACK);
+            repos.setPilotState(pilot.getPilotId(), pilot.getPilotState());
+        } finally {
+            lock.unlock();
         }
-
-        startDeboarding = false;
-        ((Pilot) Thread.currentThread()).setPilotState(PilotStates.FLYING_BACK);
-        repos.setPilotState(((Pilot) Thread.currentThread()).getPilotState());
     }
 
     /**
@@ -234,9 +238,13 @@ public class Plane {
      * It is called by the last passenger when he is leaving the plane to awake the pilot who is waiting.
      */
 
-    public synchronized void notifyPilot() {
-        inF = 0;
-
-        notifyAll();
+    public void notifyPilot() {
+        lock.lock();
+        try {
+            inF = 0;
+            pilotCond.signal();
+        } finally {
+            lock.unlock();
+        }
     }
 }